@@ -6,5 +6,10 @@ public interface Constants {
     int JWT_EXPIRATION = 86400000; // 1 day in milliseconds
     String JWT_COOKIE_NAME = "jwtCookie";
     String CSRF_COOKIE_NAME =  "XSRF-TOKEN";
+    int JWT_VALIDATION_CACHE_SIZE = 10_000; // verified tokens kept in memory
+    int DEFAULT_PAGE_SIZE = 20; // handshakes per page when the client does not ask for a size
+    int MAX_PAGE_SIZE = 100; // largest page a client may request
+    int MAX_BULK_HANDSHAKES = 1000; // most handshakes one bulk create or bulk status update may touch
+    int STREAM_FETCH_SIZE = 1000; // rows fetched per round trip when streaming a whole listing
 
 }
\ No newline at end of file
@@ -2,12 +2,20 @@ package com.handshakr.handshakr_prototype;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.Map;
 
 @SpringBootApplication
+@EnableScheduling
 public class HandshakrPrototypeApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(HandshakrPrototypeApplication.class, args);
+		SpringApplication application = new SpringApplication(HandshakrPrototypeApplication.class);
+		// Behind the reverse proxy every request comes from the proxy's address. Tomcat takes the client's
+		// from X-Forwarded-For, but only on requests from server.tomcat.remoteip.internal-proxies
+		application.setDefaultProperties(Map.of("server.forward-headers-strategy", "native"));
+		application.run(args);
 	}
 
 }
@@ -3,6 +3,7 @@ package com.handshakr.handshakr_prototype.controller;
 import com.handshakr.handshakr_prototype.security.auth.AuthService;
 import com.handshakr.handshakr_prototype.security.auth.JwtService;
 import com.handshakr.handshakr_prototype.response.ApiResponse;
+import com.handshakr.handshakr_prototype.user.UsernameAvailability;
 import com.handshakr.handshakr_prototype.user.dto.LoginRequest;
 import com.handshakr.handshakr_prototype.user.dto.RegisterRequest;
 import com.handshakr.handshakr_prototype.utils.CookieUtils;
@@ -30,17 +31,21 @@ import static com.handshakr.handshakr_prototype.Constants.*;
 public class AuthController {
     private final AuthService authService;
     private final JwtService jwtService;
+    private final UsernameAvailability usernameAvailability;
 
     /**
      * Constructs an AuthController with the required services.
      *
      * @param authService the service handling registration and authentication logic
      * @param jwtService the service used for generating JWT tokens
+     * @param usernameAvailability the filter answering whether usernames are taken
      */
     public AuthController(AuthService authService,
-                          JwtService jwtService) {
+                          JwtService jwtService,
+                          UsernameAvailability usernameAvailability) {
         this.authService = authService;
         this.jwtService = jwtService;
+        this.usernameAvailability = usernameAvailability;
     }
 
     /**
@@ -55,6 +60,20 @@ public class AuthController {
         return ResponseEntity.ok(ApiResponse.success("User registered successfully"));
     }
 
+    /**
+     * Checks whether a username is free to register. The answer is advisory; registration can still
+     * fail if someone else takes the username first.
+     *
+     * @param username the username to check
+     * @return response containing true if the username is available
+     */
+    @GetMapping("/username-available")
+    public ResponseEntity<ApiResponse<Boolean>> usernameAvailable(@RequestParam String username) {
+        boolean available = usernameAvailability.isAvailable(username);
+        return ResponseEntity.ok(ApiResponse.success(
+                available ? "Username is available" : "Username is taken", available));
+    }
+
     /**
      * Authenticates a user and returns a JWT in a secure cookie,
      * along with an optional CSRF cookie string in the response body.
@@ -69,7 +88,8 @@ public class AuthController {
             @Valid @RequestBody LoginRequest loginRequest,
             HttpServletRequest request,
             HttpServletResponse response) {
-        UserDetails userDetails = authService.authenticate(loginRequest);
+        // The client's address even behind the proxy, as long as forwarded headers are trusted from it
+        UserDetails userDetails = authService.authenticate(loginRequest, request.getRemoteAddr());
         String jwtToken = jwtService.generateToken(userDetails);
 
         ResponseCookie jwtCookie = CookieUtils.createSecureCookie(
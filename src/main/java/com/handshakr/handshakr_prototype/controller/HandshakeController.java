@@ -1,42 +1,93 @@
 package com.handshakr.handshakr_prototype.controller;
 
+import com.handshakr.handshakr_prototype.handshake.HandshakeEventHub;
+import com.handshakr.handshakr_prototype.handshake.HandshakeListVersion;
 import com.handshakr.handshakr_prototype.handshake.HandshakeService;
 import com.handshakr.handshakr_prototype.handshake.HandshakeStatus;
 import com.handshakr.handshakr_prototype.handshake.dto.*;
 import com.handshakr.handshakr_prototype.response.ApiResponse;
+import com.handshakr.handshakr_prototype.response.CursorPage;
+import com.handshakr.handshakr_prototype.response.StreamingApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.security.Principal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Set;
+
+import static com.handshakr.handshakr_prototype.Constants.DEFAULT_PAGE_SIZE;
 
 /**
  * Controller responsible for managing handshake lifecycle operations.
+ *
+ * <p>A single handshake is returned with its version as a strong {@code ETag}. The status updates accept that
+ * value in {@code If-Match} and then only apply if the handshake is still at that version, answering 412
+ * Precondition Failed otherwise, so concurrent clients cannot silently overwrite each other.</p>
+ *
+ * <p>Reads are conditional. A listing carries a weak {@code ETag} taken from the count and version sum of the
+ * handshakes it lists. A matching {@code If-None-Match} gets 304 Not Modified with no body; a listing is
+ * checked with one aggregate query before any handshake is read. Neither sends {@code Last-Modified}, whose
+ * one-second resolution and dependence on each node's clock could hide a change. Handshakes in a
+ * final status never change again, so clients may keep them without revalidating; everything else must be
+ * revalidated before reuse.</p>
  */
 @RestController
 @RequestMapping("/handshake")
 public class HandshakeController {
+    // Never a handshake's version, so an If-Match that cannot be one of our ETags fails the precondition
+    private static final long UNMATCHABLE_VERSION = -1;
+    // Handshakes in a final status never change, so clients may reuse them until they drop them
+    private static final CacheControl FINAL_HANDSHAKE =
+            CacheControl.maxAge(Duration.ofDays(30)).cachePrivate().immutable();
+    // Clients may store everything else, but must revalidate it first
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final HandshakeService handshakeService;
+    private final HandshakeEventHub eventHub;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Constructs a HandshakeController with the handshake service.
+     * Constructs a HandshakeController with the handshake service and the hub streaming handshake changes.
      *
      * @param handshakeService the service managing handshake logic
+     * @param eventHub the hub pushing handshake changes to subscribed users
+     * @param objectMapper the mapper writing streamed listings
      */
-    public HandshakeController(HandshakeService handshakeService) {
+    public HandshakeController(HandshakeService handshakeService, HandshakeEventHub eventHub,
+                               ObjectMapper objectMapper) {
         this.handshakeService = handshakeService;
+        this.eventHub = eventHub;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Retrieves a handshake by its name.
      *
      * @param handshakeName the name of the handshake
-     * @return response containing handshake data
+     * @return response containing handshake data, with the handshake's version as its ETag, or 304 Not Modified
+     * if the client's copy is current
      */
     @GetMapping("/get-handshake-by-name/{handshakeName}")
     public ResponseEntity<ApiResponse<HandshakeDto>> getHandshakeByName(
             @PathVariable String handshakeName) {
         HandshakeDto handshake = handshakeService.getHandshakeByName(handshakeName);
-        return ResponseEntity.ok(ApiResponse.success("Handshake retrieved", handshake));
+        // Spring answers a matching If-None-Match itself, skipping the body
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(handshake.version()))
+                .cacheControl(handshake.handshakeStatus().isFinal() ? FINAL_HANDSHAKE : REVALIDATE)
+                .body(ApiResponse.success("Handshake retrieved", handshake));
     }
 
     /**
@@ -66,76 +117,271 @@ public class HandshakeController {
     }
 
     /**
-     * Retrieves all handshakes initiated by a user.
+     * Retrieves one page of the handshakes initiated by a user, newest first.
      *
      * @param username the initiator's username
-     * @return response containing list of handshakes
+     * @param cursor the {@code nextCursor} from the previous page, omitted for the first page
+     * @param limit the page size, capped at {@value com.handshakr.handshakr_prototype.Constants#MAX_PAGE_SIZE}
+     * @param request the request, checked against the listing's validators
+     * @return response containing a page of handshakes and the cursor for the next page, or 304 Not Modified
+     * if none of the user's initiated handshakes changed since the client's copy
      */
     @GetMapping("/get-handshakes-by-initiator/{username}")
     public ResponseEntity<ApiResponse<List<HandshakeDto>>> getHandshakesByInitiator(
-            @PathVariable String username) {
-        List<HandshakeDto> handshakes = handshakeService.getHandshakesByInitiator(username);
-        return ResponseEntity.ok(ApiResponse.success("Handshakes retrieved", handshakes));
+            @PathVariable String username,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            WebRequest request) {
+        if (notModified(request, handshakeService.getHandshakesByInitiatorVersion(username))) {
+            return notModified();
+        }
+        CursorPage<HandshakeDto> handshakes = handshakeService.getHandshakesByInitiator(username, cursor, limit);
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .body(ApiResponse.success("Handshakes retrieved", handshakes));
     }
 
     /**
-     * Retrieves all handshakes accepted by a user.
+     * Retrieves one page of the handshakes accepted by a user, newest first.
      *
      * @param username the acceptor's username
-     * @return response containing list of handshakes
+     * @param cursor the {@code nextCursor} from the previous page, omitted for the first page
+     * @param limit the page size, capped at {@value com.handshakr.handshakr_prototype.Constants#MAX_PAGE_SIZE}
+     * @param request the request, checked against the listing's validators
+     * @return response containing a page of handshakes and the cursor for the next page, or 304 Not Modified
+     * if none of the user's received handshakes changed since the client's copy
      */
     @GetMapping("/get-handshakes-by-acceptor/{username}")
     public ResponseEntity<ApiResponse<List<HandshakeDto>>> getHandshakesByAcceptor(
-            @PathVariable String username) {
-        List<HandshakeDto> handshakes = handshakeService.getHandshakesByAcceptor(username);
-        return ResponseEntity.ok(ApiResponse.success("Handshakes retrieved", handshakes));
+            @PathVariable String username,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            WebRequest request) {
+        if (notModified(request, handshakeService.getHandshakesByAcceptorVersion(username))) {
+            return notModified();
+        }
+        CursorPage<HandshakeDto> handshakes = handshakeService.getHandshakesByAcceptor(username, cursor, limit);
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .body(ApiResponse.success("Handshakes retrieved", handshakes));
+    }
+
+    /**
+     * Retrieves every handshake initiated by a user, newest first, in one response of any size. The body has the
+     * shape of a single page with no cursor, and is written while the handshakes are read, so the server never
+     * holds them all at once.
+     *
+     * @param username the initiator's username
+     * @return response streaming all of the user's initiated handshakes
+     */
+    @GetMapping("/get-all-handshakes-by-initiator/{username}")
+    public ResponseEntity<StreamingResponseBody> getAllHandshakesByInitiator(@PathVariable String username) {
+        return streamed(action -> handshakeService.forEachHandshakeByInitiator(username, action));
+    }
+
+    /**
+     * Retrieves every handshake received by a user, newest first, in one response of any size, written while
+     * the handshakes are read.
+     *
+     * @param username the acceptor's username
+     * @return response streaming all of the user's received handshakes
+     */
+    @GetMapping("/get-all-handshakes-by-acceptor/{username}")
+    public ResponseEntity<StreamingResponseBody> getAllHandshakesByAcceptor(@PathVariable String username) {
+        return streamed(action -> handshakeService.forEachHandshakeByAcceptor(username, action));
+    }
+
+    /**
+     * Retrieves one page of the authenticated user's inbox: the handshakes they sent and received, newest first,
+     * with counts by direction and status. Replaces fetching both directions separately and counting client-side.
+     *
+     * @param principal the authenticated user
+     * @param status the statuses to list, omitted for all of them; counts always cover every status
+     * @param from the earliest creation date to include, as an ISO-8601 instant, omitted for no lower bound
+     * @param to the creation date to include handshakes up to, exclusive, omitted for no upper bound
+     * @param cursor the {@code nextCursor} from the previous page, omitted for the first page
+     * @param limit the page size, capped at {@value com.handshakr.handshakr_prototype.Constants#MAX_PAGE_SIZE}
+     * @param request the request, checked against the inbox's validators
+     * @return response containing a page of handshakes, the cursor for the next page and the counts, or 304 Not
+     * Modified if none of the user's handshakes changed since the client's copy
+     */
+    @GetMapping("/inbox")
+    public ResponseEntity<ApiResponse<HandshakeInbox>> getInbox(
+            Principal principal,
+            @RequestParam(required = false) Set<HandshakeStatus> status,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            WebRequest request) {
+        if (notModified(request, handshakeService.getInboxVersion(principal.getName()))) {
+            return notModified();
+        }
+        HandshakeInbox inbox = handshakeService.getInbox(principal.getName(), status, from, to, cursor, limit);
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .body(ApiResponse.success("Inbox retrieved", inbox));
+    }
+
+    /**
+     * Streams changes to the authenticated user's handshakes as Server-Sent Events, instead of polling for them.
+     * Each created or updated handshake arrives as a {@value HandshakeEventHub#EVENT_NAME} event holding its
+     * DTO, once the change is committed. Comments are sent as heartbeats. The stream ends after a while, or when
+     * the client falls too far behind, and clients should then reconnect and re-read anything they care about.
+     *
+     * @param principal the authenticated user
+     * @return the event stream
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(Principal principal) {
+        return eventHub.subscribe(principal.getName());
     }
 
     /**
      * Accepts a handshake by updating its status to ACCEPTED.
      *
      * @param handshakeName the name of the handshake to accept
+     * @param ifMatch the ETag the handshake must still have, if any
      * @return response indicating success
      */
     @PutMapping("/accept-handshake")
-    public ResponseEntity<ApiResponse<Void>> acceptHandshake(@RequestParam String handshakeName) {
-        handshakeService.updateHandshake(handshakeName, HandshakeStatus.ACCEPTED);
-        return ResponseEntity.ok(ApiResponse.success("Handshake accepted"));
+    public ResponseEntity<ApiResponse<Void>> acceptHandshake(
+            @RequestParam String handshakeName,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = expectedVersion(ifMatch);
+        handshakeService.updateHandshake(handshakeName, HandshakeStatus.ACCEPTED, expectedVersion);
+        return updated("Handshake accepted", expectedVersion);
     }
 
     /**
      * Rejects a handshake by updating its status to CANCELLED.
      *
      * @param handshakeName the name of the handshake to reject
+     * @param ifMatch the ETag the handshake must still have, if any
      * @return response indicating success
      */
     @PutMapping("/reject-handshake")
-    public ResponseEntity<ApiResponse<Void>> rejectHandshake(@RequestParam String handshakeName) {
-        handshakeService.updateHandshake(handshakeName, HandshakeStatus.CANCELLED);
-        return ResponseEntity.ok(ApiResponse.success("Handshake rejected"));
+    public ResponseEntity<ApiResponse<Void>> rejectHandshake(
+            @RequestParam String handshakeName,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = expectedVersion(ifMatch);
+        handshakeService.updateHandshake(handshakeName, HandshakeStatus.CANCELLED, expectedVersion);
+        return updated("Handshake rejected", expectedVersion);
     }
 
     /**
      * Completes a handshake by updating its status to COMPLETED.
      *
      * @param handshakeName the name of the handshake to complete
+     * @param ifMatch the ETag the handshake must still have, if any
      * @return response indicating success
      */
     @PutMapping("/complete-handshake")
-    public ResponseEntity<ApiResponse<Void>> completeHandshake(@RequestParam String handshakeName) {
-        handshakeService.updateHandshake(handshakeName, HandshakeStatus.COMPLETED);
-        return ResponseEntity.ok(ApiResponse.success("Handshake completed"));
+    public ResponseEntity<ApiResponse<Void>> completeHandshake(
+            @RequestParam String handshakeName,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = expectedVersion(ifMatch);
+        handshakeService.updateHandshake(handshakeName, HandshakeStatus.COMPLETED, expectedVersion);
+        return updated("Handshake completed", expectedVersion);
     }
 
     /**
      * Cancels a handshake by updating its status to CANCELLED.
      *
      * @param handshakeName the name of the handshake to cancel
+     * @param ifMatch the ETag the handshake must still have, if any
      * @return response indicating success
      */
     @PutMapping("/cancel-handshake")
-    public ResponseEntity<ApiResponse<Void>> cancelHandshake(@RequestParam String handshakeName) {
-        handshakeService.updateHandshake(handshakeName, HandshakeStatus.CANCELLED);
-        return ResponseEntity.ok(ApiResponse.success("Handshake canceled"));
+    public ResponseEntity<ApiResponse<Void>> cancelHandshake(
+            @RequestParam String handshakeName,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = expectedVersion(ifMatch);
+        handshakeService.updateHandshake(handshakeName, HandshakeStatus.CANCELLED, expectedVersion);
+        return updated("Handshake canceled", expectedVersion);
+    }
+
+    /**
+     * Moves many handshakes to the same status in one request, following the same rules as the single-handshake
+     * endpoints. Handshakes are updated or rejected individually, so the response reports each one.
+     *
+     * @param request the handshake names and their new status
+     * @return response containing the outcome for each handshake
+     */
+    @PutMapping("/update-handshakes")
+    public ResponseEntity<ApiResponse<List<HandshakeTransitionResult>>> updateHandshakes(
+            @Valid @RequestBody UpdateHandshakesRequest request) {
+        List<HandshakeTransitionResult> results =
+                handshakeService.updateHandshakes(request.handshakeNames(), request.status());
+        long updated = results.stream().filter(HandshakeTransitionResult::updated).count();
+        return ResponseEntity.ok(ApiResponse.success(
+                updated + " of " + results.size() + " handshakes updated", results));
+    }
+
+    /**
+     * Reads the version a client expects from its {@code If-Match} header. No header or {@code *} matches any
+     * version. Anything but a single strong ETag holding a version can never match one of ours.
+     *
+     * @param ifMatch the raw {@code If-Match} header, or null
+     * @return the expected version, or null to skip the version check
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<ETag> tags = ETag.parse(ifMatch);
+        if (tags.size() != 1) {
+            return UNMATCHABLE_VERSION;
+        }
+        ETag tag = tags.getFirst();
+        if (tag.isWildcard()) {
+            return null;
+        }
+        if (tag.weak() || !tag.tag().matches("\\d{1,18}")) {
+            return UNMATCHABLE_VERSION;
+        }
+        return Long.parseLong(tag.tag());
+    }
+
+    /**
+     * Checks a listing's ETag against the request's {@code If-None-Match}, and sets it on the response either
+     * way. The version is read before the listing, so a change committed in between only makes the client's next
+     * request miss. There is no {@code Last-Modified}: change times come from each node's clock, so a change
+     * stamped no later than the last one would go unnoticed.
+     *
+     * @param request the request
+     * @param version the version of the handshakes the listing is drawn from
+     * @return true if the client's copy is current
+     */
+    private static boolean notModified(WebRequest request, HandshakeListVersion version) {
+        return request.checkNotModified("W/\"" + version.tag() + "\"");
+    }
+
+    /**
+     * Builds the bodiless 304 response to a current listing; its validators are already on the response.
+     */
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+    }
+
+    /**
+     * Builds the response streaming a whole listing of handshakes.
+     */
+    private ResponseEntity<StreamingResponseBody> streamed(StreamingApiResponse.Source<HandshakeDto> source) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new StreamingApiResponse<>(objectMapper, "Handshakes retrieved", source));
+    }
+
+    /**
+     * Builds the response to a successful update. A conditional update knows the version it produced, so it
+     * returns it as the new ETag for the client's next conditional update.
+     */
+    private static ResponseEntity<ApiResponse<Void>> updated(String message, Long expectedVersion) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (expectedVersion != null) {
+            response.eTag(String.valueOf(expectedVersion + 1));
+        }
+        return response.body(ApiResponse.success(message));
     }
 }
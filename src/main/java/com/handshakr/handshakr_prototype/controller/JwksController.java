@@ -0,0 +1,41 @@
+package com.handshakr.handshakr_prototype.controller;
+
+import com.handshakr.handshakr_prototype.security.auth.JwtKeyRing;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Publishes the public keys that verify our JWTs, so other services can validate tokens locally.
+ */
+@Controller
+public class JwksController {
+    private final JwtKeyRing keyRing;
+
+    /**
+     * Constructs a JwksController with the key ring whose public keys it publishes.
+     *
+     * @param keyRing the JWT key ring
+     */
+    public JwksController(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    /**
+     * Returns the current public verification keys as a JSON Web Key Set.
+     *
+     * <p>The set is empty when tokens are signed with the shared HS256 secret.</p>
+     *
+     * @return the key set, cacheable for five minutes
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(keyRing.publicJwks());
+    }
+}
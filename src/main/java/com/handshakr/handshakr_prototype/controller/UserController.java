@@ -2,16 +2,21 @@ package com.handshakr.handshakr_prototype.controller;
 
 import com.handshakr.handshakr_prototype.handshake.HandshakeService;
 import com.handshakr.handshakr_prototype.handshake.dto.CreateHandshakeRequest;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeCreationResult;
 import com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto;
 import com.handshakr.handshakr_prototype.response.ApiResponse;
+import com.handshakr.handshakr_prototype.response.StreamingApiResponse;
 import com.handshakr.handshakr_prototype.user.User;
 import com.handshakr.handshakr_prototype.user.dto.SetPublicKeyRequest;
 import com.handshakr.handshakr_prototype.user.dto.UserDto;
 import com.handshakr.handshakr_prototype.user.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.security.Principal;
 import java.util.Date;
@@ -25,26 +30,33 @@ import java.util.List;
 public class UserController {
     private final UserService userService;
     private final HandshakeService handshakeService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Constructs a UserController with required services.
      *
      * @param userService the user management service
      * @param handshakeService the handshake management service
+     * @param objectMapper the mapper writing streamed listings
      */
-    public UserController(UserService userService, HandshakeService handshakeService) {
+    public UserController(UserService userService, HandshakeService handshakeService, ObjectMapper objectMapper) {
         this.userService = userService;
         this.handshakeService = handshakeService;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Retrieves all registered usernames.
+     * Retrieves all registered usernames. The list is written while it is read, so the server never holds every
+     * username at once.
      *
-     * @return response containing list of usernames
+     * @return response streaming the list of usernames
      */
     @GetMapping("/")
-    public ResponseEntity<ApiResponse<List<String>>> getAllUsernames() {
-        return ResponseEntity.ok(ApiResponse.success("Users retrieved successfully", userService.users()));
+    public ResponseEntity<StreamingResponseBody> getAllUsernames() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new StreamingApiResponse<String>(objectMapper, "Users retrieved successfully",
+                        userService::forEachUsername));
     }
 
     /**
@@ -56,7 +68,10 @@ public class UserController {
     @GetMapping("/me")
     public ResponseEntity<ApiResponse<UserDto>> getAuthenticatedUser(Principal principal) {
 
-        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        // In stateless auth mode the principal is a token snapshot without profile data
+        User user = SecurityContextHolder.getContext().getAuthentication().getPrincipal() instanceof User authenticated
+                ? authenticated
+                : userService.findByUsername(principal.getName());
 
         return ResponseEntity.ok(ApiResponse.success("User details retrieved", UserDto.from(user)));
     }
@@ -101,13 +116,26 @@ public class UserController {
             @Valid @RequestBody CreateHandshakeRequest request,
             Principal principal) {
 
-        String initiatorUsername = principal.getName();
-        User initiator = userService.findByUsername(initiatorUsername);
-        User acceptor = userService.findByUsername(request.receiverUsername());
+        HandshakeDto createdHandshake = handshakeService.createHandshake(request, principal.getName());
+        return ResponseEntity.ok(ApiResponse.success("Handshake created successfully", createdHandshake));
+    }
 
-        handshakeService.createHandshake(request, initiatorUsername);
-        HandshakeDto createdHandshake = handshakeService.getHandshakeByName(request.handshakeName());
+    /**
+     * Creates many handshakes where the authenticated user is the initiator. Entries are created or rejected
+     * individually, so the response reports each one in request order.
+     *
+     * @param requests the handshake creation requests
+     * @param principal the current user principal
+     * @return response containing the outcome of each request
+     */
+    @PostMapping("/create-handshakes")
+    public ResponseEntity<ApiResponse<List<HandshakeCreationResult>>> createHandshakesAsInitiator(
+            @RequestBody List<CreateHandshakeRequest> requests,
+            Principal principal) {
 
-        return ResponseEntity.ok(ApiResponse.success("Handshake created successfully", createdHandshake));
+        List<HandshakeCreationResult> results = handshakeService.createHandshakes(requests, principal.getName());
+        long created = results.stream().filter(HandshakeCreationResult::created).count();
+        return ResponseEntity.ok(ApiResponse.success(
+                created + " of " + results.size() + " handshakes created", results));
     }
 }
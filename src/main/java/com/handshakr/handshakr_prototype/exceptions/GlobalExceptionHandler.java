@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.*;
@@ -158,6 +159,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler({
             UserAlreadyExistsException.class,
             HandshakeAlreadyExistsException.class,
+            HandshakeInvalidTransitionException.class,
             ConflictException.class,
             DataIntegrityViolationException.class
     })
@@ -172,13 +174,59 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(message, HttpStatus.CONFLICT.value()));
     }
 
+    /**
+     * Handles conditional requests whose {@code If-Match} no longer matches the resource's current version.
+     *
+     * @param ex the exception indicating a stale version
+     * @return a {@link ResponseEntity} with 412 Precondition Failed status
+     */
+    // ====== Precondition Failed (412) ======
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiResponse<String>> handlePreconditionFailed(PreconditionFailedException ex) {
+        logger.warn("Precondition failed: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(ApiResponse.error(ex.getMessage(), HttpStatus.PRECONDITION_FAILED.value()));
+    }
+
+    /**
+     * Handles logins refused by the brute-force throttle, telling the client when to retry.
+     *
+     * @param ex the exception indicating too many failed attempts
+     * @return a {@link ResponseEntity} with 429 Too Many Requests status and a {@code Retry-After} header
+     */
+    // ====== Rate Limiting (429) ======
+    @ExceptionHandler(TooManyAttemptsException.class)
+    public ResponseEntity<ApiResponse<String>> handleTooManyAttempts(TooManyAttemptsException ex) {
+        logger.warn("Login throttled: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS.value()));
+    }
+
+    /**
+     * Handles load shedding by the password hashing pool, telling the client when to retry.
+     *
+     * @param ex the exception indicating the hashing pool is saturated
+     * @return a {@link ResponseEntity} with 503 Service Unavailable status and a {@code Retry-After} header
+     */
+    // ====== Service Availability (503) ======
+    @ExceptionHandler(AuthenticationOverloadedException.class)
+    public ResponseEntity<ApiResponse<String>> handleAuthenticationOverloaded(AuthenticationOverloadedException ex) {
+        logger.warn("Authentication overloaded: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE.value()));
+    }
+
     /**
      * Handles service unavailable errors, typically for external system failures or resource exhaustion.
      *
      * @param ex the exception indicating service unavailability
      * @return a {@link ResponseEntity} with 503 Service Unavailable status
      */
-    // ====== Service Availability (503) ======
     @ExceptionHandler(ServiceUnavailableException.class)
     public ResponseEntity<ApiResponse<String>> handleServiceUnavailable(ServiceUnavailableException ex) {
         logger.error("Service unavailable: {}", ex.getMessage());
@@ -47,6 +47,16 @@ public class HandshakeExceptionFactory implements BaseExceptionFactory {
                 HandshakeExceptionType.HANDSHAKE_NOT_FOUND, identifier);
     }
 
+    public HandshakeInvalidTransitionException invalidTransition(String handshakeName, Enum<?> from, Enum<?> to) {
+        return (HandshakeInvalidTransitionException) create(
+                HandshakeExceptionType.INVALID_TRANSITION, handshakeName, from.name(), to.name());
+    }
+
+    public HandshakeVersionMismatchException versionMismatch(String handshakeName, long expected, long actual) {
+        return (HandshakeVersionMismatchException) create(
+                HandshakeExceptionType.VERSION_MISMATCH, handshakeName, String.valueOf(expected), String.valueOf(actual));
+    }
+
     public HandshakeReceiverNotFoundException receiverNotFound(String username) {
         return (HandshakeReceiverNotFoundException) create(
                 HandshakeExceptionType.RECEIVER_NOT_FOUND, username);
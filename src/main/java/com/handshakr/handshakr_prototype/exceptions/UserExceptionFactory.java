@@ -1,6 +1,7 @@
 package com.handshakr.handshakr_prototype.exceptions;
 
 import com.handshakr.handshakr_prototype.exceptions.security.InvalidCredentialsException;
+import com.handshakr.handshakr_prototype.exceptions.security.TooManyAttemptsException;
 import com.handshakr.handshakr_prototype.exceptions.general.*;
 import com.handshakr.handshakr_prototype.exceptions.user.AccountLockedException;
 import com.handshakr.handshakr_prototype.exceptions.user.UserAlreadyExistsException;
@@ -75,4 +76,9 @@ public class UserExceptionFactory implements BaseExceptionFactory {
         return (AccountLockedException) create(
                 UserExceptionType.ACCOUNT_LOCKED, message);
     }
+
+    public TooManyAttemptsException tooManyAttempts(long retryAfterSeconds) {
+        return (TooManyAttemptsException) create(
+                UserExceptionType.TOO_MANY_ATTEMPTS, String.valueOf(retryAfterSeconds));
+    }
 }
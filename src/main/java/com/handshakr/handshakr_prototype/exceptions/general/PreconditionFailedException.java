@@ -0,0 +1,7 @@
+package com.handshakr.handshakr_prototype.exceptions.general;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -18,6 +18,20 @@ public enum HandshakeExceptionType {
                     String.format("Handshake with name '%s' not found", params[0]));
         }
     },
+    INVALID_TRANSITION {
+        @Override
+        public RuntimeException create(String... params) {
+            return new HandshakeInvalidTransitionException(
+                    String.format("Handshake '%s' cannot move from %s to %s", params[0], params[1], params[2]));
+        }
+    },
+    VERSION_MISMATCH {
+        @Override
+        public RuntimeException create(String... params) {
+            return new HandshakeVersionMismatchException(
+                    String.format("Handshake '%s' is at version %s, not %s", params[0], params[2], params[1]));
+        }
+    },
     HANDSHAKE_SERVICE_UNAVAILABLE {
         @Override
         public RuntimeException create(String... params) {
@@ -0,0 +1,9 @@
+package com.handshakr.handshakr_prototype.exceptions.handshake;
+
+import com.handshakr.handshakr_prototype.exceptions.general.ConflictException;
+
+public class HandshakeInvalidTransitionException extends ConflictException {
+    public HandshakeInvalidTransitionException(String message) {
+        super(message);
+    }
+}
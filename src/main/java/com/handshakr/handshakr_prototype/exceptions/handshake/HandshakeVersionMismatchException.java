@@ -0,0 +1,9 @@
+package com.handshakr.handshakr_prototype.exceptions.handshake;
+
+import com.handshakr.handshakr_prototype.exceptions.general.PreconditionFailedException;
+
+public class HandshakeVersionMismatchException extends PreconditionFailedException {
+    public HandshakeVersionMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.handshakr.handshakr_prototype.exceptions.security;
+
+import com.handshakr.handshakr_prototype.exceptions.general.ServiceUnavailableException;
+
+public class AuthenticationOverloadedException extends ServiceUnavailableException {
+    private final long retryAfterSeconds;
+
+    public AuthenticationOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
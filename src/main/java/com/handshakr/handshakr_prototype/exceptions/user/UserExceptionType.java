@@ -2,6 +2,7 @@ package com.handshakr.handshakr_prototype.exceptions.user;
 
 import com.handshakr.handshakr_prototype.exceptions.handshake.HandshakeNotFoundException;
 import com.handshakr.handshakr_prototype.exceptions.security.InvalidCredentialsException;
+import com.handshakr.handshakr_prototype.exceptions.security.TooManyAttemptsException;
 import com.handshakr.handshakr_prototype.exceptions.general.*;
 
 public enum UserExceptionType {
@@ -57,6 +58,13 @@ public enum UserExceptionType {
             return new AccountLockedException(
                     params.length > 0 ? params[0] : "Account is locked");
         }
+    },
+    TOO_MANY_ATTEMPTS {
+        @Override
+        public RuntimeException create(String... params) {
+            return new TooManyAttemptsException(
+                    "Too many failed login attempts, please retry later", Long.parseLong(params[0]));
+        }
     };
 
     public abstract RuntimeException create(String... params);
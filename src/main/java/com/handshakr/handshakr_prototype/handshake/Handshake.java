@@ -18,13 +18,28 @@ import static com.handshakr.handshakr_prototype.handshake.HandshakeStatus.*;
 @Entity
 @Getter
 @Setter
-@Table(name="Handshakes")
+@Table(name="Handshakes", uniqueConstraints = {
+        @UniqueConstraint(name = Handshake.HANDSHAKE_NAME_CONSTRAINT, columnNames = "handshakeName")
+}, indexes = {
+        @Index(name = "idx_handshakes_initiator_created", columnList = "initiatorUsername, createdDate, id"),
+        @Index(name = "idx_handshakes_receiver_created", columnList = "receiverUsername, createdDate, id")
+})
 @NoArgsConstructor
 public class Handshake {
+    /** Name of the unique constraint on {@code handshakeName}. */
+    public static final String HANDSHAKE_NAME_CONSTRAINT = "uk_handshakes_handshake_name";
+
+    /** Name of the sequence handshake ids are drawn from. */
+    public static final String ID_SEQUENCE = "handshakes_seq";
+    /** Ids fetched per sequence call; must match the sequence's increment. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Sequence ids with a pooled optimizer: ids are known before insert, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String handshakeName;
     @Column
     private String encryptedDetails;
@@ -38,12 +53,17 @@ public class Handshake {
     private String initiatorUsername;
     @Column(nullable = false)
     private String receiverUsername;
-    @ManyToOne
+    // Lazy so reading a handshake does not also load both users' rows
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "initiator_id")
     private User initiator;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "receiver_id")
     private User receiver;
+    // Incremented on every update; published to clients as the handshake's ETag
+    @Version
+    @Column(nullable = false)
+    private long version;
 
 
     /**
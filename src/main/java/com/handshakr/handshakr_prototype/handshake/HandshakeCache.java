@@ -0,0 +1,122 @@
+package com.handshakr.handshakr_prototype.handshake;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * In-process read-through cache of handshakes, keyed by handshake name.
+ *
+ * <p>Sits in front of {@link HandshakeRepository#findDtoByHandshakeName} so that repeated lookups of the same
+ * handshake do not query the database. Entries are bounded by their approximate size in bytes, with Caffeine's
+ * W-TinyLFU policy admitting only keys that are read often enough to displace what is already cached, and
+ * expire after a fixed TTL. Handshakes are evicted as soon as a transaction that created or changed them
+ * commits (see {@link HandshakeChangedEvent}), on this node directly and on the others through
+ * {@link HandshakeCacheBroadcast}; an eviction waits for a load of the same handshake that is still in flight,
+ * so a value read before the commit is never cached after it. Missing handshakes are not cached.</p>
+ *
+ * <p>Hit, miss and eviction counts are published as {@code cache.*} meters tagged {@code cache=handshakes},
+ * along with the {@code cache.hit.ratio} gauge.</p>
+ */
+@Component
+public class HandshakeCache {
+    static final String CACHE_NAME = "handshakes";
+    // Rough bytes for the record, its boxed fields and the cache entry, on top of its strings
+    private static final int ENTRY_OVERHEAD = 160;
+
+    private final Cache<String, HandshakeDto> handshakes;
+    private final Counter invalidations;
+
+    public HandshakeCache(
+            @Value("${handshake.cache.max-weight:67108864}") long maxWeight,
+            @Value("${handshake.cache.ttl-seconds:300}") long ttlSeconds,
+            MeterRegistry meterRegistry) {
+        this.handshakes = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher(HandshakeCache::weigh)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.invalidations = Counter.builder("cache.invalidations")
+                .description("Handshakes evicted because they were created or changed")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.hit.ratio", handshakes, cache -> cache.stats().hitRate())
+                .description("Fraction of lookups served from the cache")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, handshakes, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached handshake with the given name, loading and caching it on a miss.
+     *
+     * @param handshakeName the unique name of the handshake
+     * @param loader        loads the handshake when it is not cached, returning {@code null} if it does not exist;
+     *                      exceptions are propagated and nothing is cached
+     * @return the handshake, or {@code null} if it does not exist
+     */
+    public HandshakeDto get(String handshakeName, Function<String, ? extends HandshakeDto> loader) {
+        return handshakes.get(handshakeName, loader);
+    }
+
+    /**
+     * Evicts the handshake with the given name, if cached.
+     *
+     * @param handshakeName the unique name of the handshake
+     */
+    public void invalidate(String handshakeName) {
+        if (handshakeName != null && handshakes.asMap().remove(handshakeName) != null) {
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Evicts every cached handshake.
+     */
+    public void invalidateAll() {
+        handshakes.invalidateAll();
+    }
+
+    /**
+     * Returns a snapshot of hit, miss and eviction statistics.
+     *
+     * @return the cache statistics
+     */
+    public CacheStats stats() {
+        return handshakes.stats();
+    }
+
+    /**
+     * Evicts the changed handshakes once the transaction that changed them commits.
+     *
+     * @param event the handshakes that changed
+     */
+    @TransactionalEventListener
+    public void onHandshakesChanged(HandshakeChangedEvent event) {
+        event.handshakeNames().forEach(this::invalidate);
+    }
+
+    private static int weigh(String handshakeName, HandshakeDto handshake) {
+        return ENTRY_OVERHEAD
+                + 2 * handshakeName.length()
+                + length(handshake.encryptedDetails())
+                + length(handshake.initiatorUsername())
+                + length(handshake.acceptorUsername());
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,141 @@
+package com.handshakr.handshakr_prototype.handshake;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Evicts changed handshakes from the {@link HandshakeCache} of every node, not only the node that changed them.
+ *
+ * <p>The transaction changing handshakes also sends their names with PostgreSQL {@code NOTIFY} on
+ * {@value #CHANNEL}, which the database delivers to every listening connection if and when that transaction
+ * commits. Each node keeps one pooled connection listening and evicts the names it receives. Notifications
+ * sent while a node is not listening are lost, so its whole cache is cleared whenever the connection is
+ * (re)established. A connection that stops answering is replaced. The cache's TTL remains a backstop.</p>
+ *
+ * <p>Does nothing on databases other than PostgreSQL, where each node's cache is left to expire on its own.</p>
+ */
+@Component
+public class HandshakeCacheBroadcast implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(HandshakeCacheBroadcast.class);
+
+    static final String CHANNEL = "handshake_cache";
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final HandshakeCache cache;
+    private final int pollMillis;
+    private final long retryMillis;
+    private volatile boolean running;
+    private volatile boolean postgres;
+
+    /**
+     * Creates a broadcast from configuration.
+     *
+     * @param dataSource  the database the changes are made in
+     * @param cache       this node's cache
+     * @param pollMillis  how long the listener waits for notifications before checking its connection
+     * @param retryMillis how long the listener waits before reconnecting after losing its connection
+     */
+    public HandshakeCacheBroadcast(DataSource dataSource, HandshakeCache cache,
+                                   @Value("${handshake.cache.broadcast.poll-ms:10000}") int pollMillis,
+                                   @Value("${handshake.cache.broadcast.retry-ms:5000}") long retryMillis) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.cache = cache;
+        this.pollMillis = pollMillis;
+        this.retryMillis = retryMillis;
+    }
+
+    /**
+     * Announces the changed handshakes to every node, in the transaction that changed them.
+     *
+     * @param event the handshakes that changed
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onHandshakesChanged(HandshakeChangedEvent event) {
+        if (postgres) {
+            jdbcTemplate.query("select pg_notify(?, name) from unnest(?) name", row -> { },
+                    CHANNEL, event.handshakeNames().toArray(String[]::new));
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = connection.isWrapperFor(PGConnection.class);
+        } catch (SQLException e) {
+            logger.warn("Could not determine the database; handshake cache changes will not be broadcast", e);
+        }
+        if (postgres) {
+            Thread.ofVirtual().name("handshake-cache-listener").start(this::listen);
+        } else {
+            logger.info("Not on PostgreSQL; handshake cache changes will not be broadcast to other nodes");
+        }
+    }
+
+    @Override
+    public void stop() {
+        // The listener notices within one poll, or at once when the pool closes its connection
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                cache.invalidateAll();
+                receive(connection, connection.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Lost the handshake cache listener connection; reconnecting", e);
+                cache.invalidateAll();
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(Connection connection, PGConnection listener) throws SQLException {
+        while (running) {
+            PGNotification[] notifications = listener.getNotifications(pollMillis);
+            if (notifications == null || notifications.length == 0) {
+                // Nothing arrived, which is also what a silently dropped connection looks like
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Handshake cache listener connection is no longer valid");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                cache.invalidate(notification.getParameter());
+            }
+        }
+    }
+}
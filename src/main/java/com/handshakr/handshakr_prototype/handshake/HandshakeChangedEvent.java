@@ -0,0 +1,19 @@
+package com.handshakr.handshakr_prototype.handshake;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Application event published by {@link HandshakeService} when handshakes are created or change status.
+ *
+ * <p>It is published inside the transaction making the change, so listeners that push the change to clients
+ * should run after commit and never announce a change that was rolled back.</p>
+ *
+ * @param handshakeNames the names of the handshakes that changed
+ */
+public record HandshakeChangedEvent(Collection<String> handshakeNames) {
+
+    public HandshakeChangedEvent {
+        handshakeNames = List.copyOf(handshakeNames);
+    }
+}
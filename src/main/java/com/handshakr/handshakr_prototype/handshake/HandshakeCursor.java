@@ -0,0 +1,59 @@
+package com.handshakr.handshakr_prototype.handshake;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position of the last handshake on a page of a listing ordered by {@code createdDate} then {@code id},
+ * both descending. The next page starts strictly after it.
+ *
+ * <p>Clients only ever see the {@link #encode() encoded} form, which they pass back unchanged.</p>
+ *
+ * @param createdDate the creation date of the last handshake returned
+ * @param id          the id of the last handshake returned, breaking ties between equal dates
+ */
+public record HandshakeCursor(Instant createdDate, long id) {
+
+    /**
+     * Returns the cursor positioned at the given handshake.
+     *
+     * @param row the last handshake on a page
+     * @return the cursor after that handshake
+     */
+    public static HandshakeCursor after(HandshakeRow row) {
+        return new HandshakeCursor(row.createdDate(), row.id());
+    }
+
+    /**
+     * Encodes the cursor as an opaque, URL-safe token.
+     *
+     * @return the token
+     */
+    public String encode() {
+        String raw = createdDate.getEpochSecond() + ":" + createdDate.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the token
+     * @return the cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static HandshakeCursor decode(String token) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            return new HandshakeCursor(
+                    Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                    Long.parseLong(parts[2]));
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
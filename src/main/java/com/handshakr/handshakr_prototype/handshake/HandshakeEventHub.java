@@ -0,0 +1,206 @@
+package com.handshakr.handshakr_prototype.handshake;
+
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes handshake changes to the users involved over Server-Sent Events, so clients no longer poll for them.
+ *
+ * <p>Each subscription is an {@link SseEmitter} on an async request, which holds no thread while idle. Changes
+ * are fanned out once their transaction commits: the changed handshakes are read in one query, but only while
+ * someone is subscribed, and queued for their initiator and receiver. Every subscriber has its own bounded
+ * buffer drained on a virtual thread, so a slow client never blocks the request that made the change or the
+ * other subscribers. A subscriber whose buffer overflows is disconnected, and reconnecting re-reads the state
+ * it missed.</p>
+ *
+ * <p>A heartbeat comment is sent periodically so proxies keep idle streams open and dead clients are noticed.</p>
+ */
+@Component
+public class HandshakeEventHub {
+    private static final Logger logger = LoggerFactory.getLogger(HandshakeEventHub.class);
+
+    /** SSE event name of a handshake change. */
+    public static final String EVENT_NAME = "handshake";
+
+    private final HandshakeRepository repository;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final ConcurrentHashMap<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Creates a hub from configuration.
+     *
+     * @param repository    reads the changed handshakes
+     * @param timeoutMillis how long a subscription lasts before the client has to reconnect
+     * @param bufferSize    how many changes may be waiting for one subscriber before it is disconnected
+     */
+    public HandshakeEventHub(HandshakeRepository repository,
+                             @Value("${handshake.events.timeout-ms:1800000}") long timeoutMillis,
+                             @Value("${handshake.events.buffer-size:32}") int bufferSize) {
+        this.repository = repository;
+        this.timeoutMillis = timeoutMillis;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Opens a stream of changes to the handshakes a user initiated or received.
+     *
+     * @param username the subscribing user
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(String username) {
+        Subscriber subscriber = new Subscriber(username, new SseEmitter(timeoutMillis));
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(error -> remove(subscriber));
+        subscribers.compute(username, (key, set) -> {
+            Set<Subscriber> current = set == null ? ConcurrentHashMap.newKeySet() : set;
+            current.add(subscriber);
+            return current;
+        });
+        // Commits the response headers straight away, so the client knows it is connected
+        subscriber.heartbeat();
+        return subscriber.emitter;
+    }
+
+    /**
+     * Returns the number of open subscriptions.
+     *
+     * @return the number of subscribers across all users
+     */
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Queues committed handshake changes for the users involved.
+     *
+     * @param event the handshakes that changed
+     */
+    @TransactionalEventListener
+    public void onHandshakesChanged(HandshakeChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            for (HandshakeDto handshake : repository.findDtosByHandshakeNameIn(event.handshakeNames())) {
+                publish(handshake.initiatorUsername(), handshake);
+                if (!handshake.acceptorUsername().equals(handshake.initiatorUsername())) {
+                    publish(handshake.acceptorUsername(), handshake);
+                }
+            }
+        } catch (Exception e) {
+            // The change is committed either way; clients that miss it see it on their next read
+            logger.warn("Failed to publish changes to handshakes {}", event.handshakeNames(), e);
+        }
+    }
+
+    /**
+     * Sends a heartbeat comment to every subscriber.
+     */
+    @Scheduled(fixedDelayString = "${handshake.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::heartbeat));
+    }
+
+    /**
+     * Closes every subscription on shutdown, so clients reconnect to another node.
+     */
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdown();
+    }
+
+    private void publish(String username, HandshakeDto handshake) {
+        Set<Subscriber> set = subscribers.get(username);
+        if (set != null) {
+            set.forEach(subscriber -> subscriber.offer(handshake));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.username, (key, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * One open stream. Changes wait in a bounded buffer and a heartbeat is at most one pending flag, and at most
+     * one virtual thread drains them at a time.
+     */
+    private final class Subscriber {
+        private final String username;
+        private final SseEmitter emitter;
+        private final BlockingQueue<HandshakeDto> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(String username, SseEmitter emitter) {
+            this.username = username;
+            this.emitter = emitter;
+        }
+
+        void offer(HandshakeDto handshake) {
+            if (!buffer.offer(handshake)) {
+                logger.debug("Disconnecting slow handshake event subscriber {}", username);
+                remove(this);
+                emitter.complete();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        void heartbeat() {
+            heartbeatDue.set(true);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                try {
+                    HandshakeDto handshake;
+                    while ((handshake = buffer.poll()) != null) {
+                        emitter.send(SseEmitter.event()
+                                .name(EVENT_NAME)
+                                .id(handshake.handshakeName() + ":" + handshake.version())
+                                .data(handshake));
+                    }
+                    if (heartbeatDue.getAndSet(false)) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // The client has gone or the emitter has completed, and Spring cleans up the request itself.
+                    // Draining stays claimed so nothing more is sent.
+                    remove(this);
+                    return;
+                }
+                draining.set(false);
+            } while ((!buffer.isEmpty() || heartbeatDue.get()) && draining.compareAndSet(false, true));
+        }
+    }
+}
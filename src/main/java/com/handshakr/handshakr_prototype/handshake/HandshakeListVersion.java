@@ -0,0 +1,22 @@
+package com.handshakr.handshakr_prototype.handshake;
+
+/**
+ * A fingerprint of a set of handshakes, read with one aggregate query instead of the handshakes themselves.
+ * Creating a handshake raises the count and changing one raises its version, so every change to the set
+ * changes the fingerprint, and it validates a client's cached listing of the set. Unlike timestamps, versions
+ * do not depend on the clocks of the nodes making the changes.
+ *
+ * @param count      the number of handshakes in the set
+ * @param versionSum the sum of their versions
+ */
+public record HandshakeListVersion(long count, long versionSum) {
+
+    /**
+     * Returns an opaque tag for this version, suitable for a weak ETag.
+     *
+     * @return the tag
+     */
+    public String tag() {
+        return count + "-" + versionSum;
+    }
+}
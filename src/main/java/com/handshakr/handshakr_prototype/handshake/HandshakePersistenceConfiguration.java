@@ -0,0 +1,33 @@
+package com.handshakr.handshakr_prototype.handshake;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate settings that let handshakes be inserted in JDBC batches.
+ *
+ * <p>Inserts are grouped per entity and sent {@code persistence.jdbc.batch-size} at a time, by default one
+ * {@link Handshake#ID_ALLOCATION_SIZE id allocation}. Settings given explicitly through
+ * {@code spring.jpa.properties} take precedence.</p>
+ */
+@Configuration
+public class HandshakePersistenceConfiguration {
+
+    /**
+     * Enables JDBC batching and insert ordering unless already configured.
+     *
+     * @param batchSize the number of statements sent per batch
+     * @return the customizer applied to Hibernate's properties
+     */
+    @Bean
+    HibernatePropertiesCustomizer jdbcBatching(
+            @Value("${persistence.jdbc.batch-size:" + Handshake.ID_ALLOCATION_SIZE + "}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+        };
+    }
+}
@@ -1,15 +1,28 @@
 package com.handshakr.handshakr_prototype.handshake;
 
-import org.springframework.data.repository.CrudRepository;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.handshakr.handshakr_prototype.Constants.STREAM_FETCH_SIZE;
 
 /**
  * Repository interface for accessing and managing Handshake entities in the database.
- * Extends the CrudRepository for basic CRUD operations.
+ * Extends the JpaRepository for basic CRUD operations and explicit flushing.
  */
-public interface HandshakeRepository extends CrudRepository<Handshake, Long> {
+public interface HandshakeRepository extends JpaRepository<Handshake, Long> {
 
     /**
      * Finds a handshake by the receiver's username.
@@ -51,6 +64,407 @@ public interface HandshakeRepository extends CrudRepository<Handshake, Long> {
      */
     List<Handshake> findAllByReceiverUsername(String username);
 
+    /**
+     * Inserts new handshakes in a single statement, skipping any whose name is already taken, including by a
+     * concurrent insert, and returns the names it inserted. The arrays describe one handshake per index. Ids are
+     * drawn from {@value Handshake#ID_SEQUENCE} a block at a time, the way Hibernate's pooled optimizer draws them,
+     * so they never clash with ids Hibernate hands out. Statuses are passed as ordinals, the way
+     * {@link Handshake} stores them.
+     *
+     * @param handshakeNames     The unique names of the handshakes, without duplicates.
+     * @param encryptedDetails   The encrypted details of each handshake.
+     * @param receiverUsernames  The username of each handshake's receiver.
+     * @param receiverIds        The id of each handshake's receiver.
+     * @param initiatorUsername  The username of the initiator of every handshake.
+     * @param initiatorId        The id of the initiator.
+     * @param status             The ordinal of the status every handshake starts in.
+     * @param createdAt          The creation time of every handshake.
+     * @param allocationSize     The ids handed out per sequence call; the sequence's increment.
+     * @return The names of the handshakes that were inserted.
+     */
+    @Query(nativeQuery = true, value = """
+            with ids as (
+                select block, nextval('handshakes_seq') as last_id
+                from generate_series(0, (cardinality(cast(:handshakeNames as varchar[])) - 1) / :allocationSize) block
+            )
+            insert into handshakes (id, handshake_name, encrypted_details, created_date, handshake_status,
+                                    initiator_username, receiver_username, initiator_id, receiver_id, version)
+            select ids.last_id - :allocationSize + 1 + (r.n - 1) % :allocationSize, r.handshake_name,
+                   r.encrypted_details, :createdAt, :status, :initiatorUsername, r.receiver_username,
+                   :initiatorId, r.receiver_id, 0
+            from unnest(cast(:handshakeNames as varchar[]), cast(:encryptedDetails as varchar[]),
+                        cast(:receiverUsernames as varchar[]), cast(:receiverIds as bigint[]))
+                     with ordinality r (handshake_name, encrypted_details, receiver_username, receiver_id, n)
+                     join ids on ids.block = (r.n - 1) / :allocationSize
+            on conflict (handshake_name) do nothing
+            returning handshake_name""")
+    List<String> insertAllIgnoringTaken(@Param("handshakeNames") String[] handshakeNames,
+                                        @Param("encryptedDetails") String[] encryptedDetails,
+                                        @Param("receiverUsernames") String[] receiverUsernames,
+                                        @Param("receiverIds") Long[] receiverIds,
+                                        @Param("initiatorUsername") String initiatorUsername,
+                                        @Param("initiatorId") Long initiatorId,
+                                        @Param("status") int status,
+                                        @Param("createdAt") Instant createdAt,
+                                        @Param("allocationSize") int allocationSize);
+
+    /**
+     * Reads the DTO columns of a handshake by its unique name, without loading the entity or its users.
+     *
+     * @param handshakeName The unique name of the handshake.
+     * @return An Optional containing the handshake DTO if found.
+     */
+    @Query("""
+            select new com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto(
+                h.handshakeName, h.encryptedDetails, h.createdDate, h.mostRecentUpdateDate,
+                h.handshakeStatus, h.initiatorUsername, h.receiverUsername, h.version)
+            from Handshake h
+            where h.handshakeName = :handshakeName""")
+    Optional<HandshakeDto> findDtoByHandshakeName(@Param("handshakeName") String handshakeName);
+
+    /**
+     * Reads the DTO columns of each of the given handshakes that exists, in one query.
+     *
+     * @param handshakeNames The unique names of the handshakes.
+     * @return The DTO of every matching handshake.
+     */
+    @Query("""
+            select new com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto(
+                h.handshakeName, h.encryptedDetails, h.createdDate, h.mostRecentUpdateDate,
+                h.handshakeStatus, h.initiatorUsername, h.receiverUsername, h.version)
+            from Handshake h
+            where h.handshakeName in :handshakeNames""")
+    List<HandshakeDto> findDtosByHandshakeNameIn(@Param("handshakeNames") Collection<String> handshakeNames);
+
+    /**
+     * Reads the DTO columns of a handshake by the receiver's username, without loading the entity or its users.
+     *
+     * @param username The username of the receiver.
+     * @return An Optional containing the handshake DTO if found.
+     */
+    @Query("""
+            select new com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto(
+                h.handshakeName, h.encryptedDetails, h.createdDate, h.mostRecentUpdateDate,
+                h.handshakeStatus, h.initiatorUsername, h.receiverUsername, h.version)
+            from Handshake h
+            where h.receiverUsername = :username""")
+    Optional<HandshakeDto> findDtoByReceiverUsername(@Param("username") String username);
+
+    /**
+     * Reads the DTO columns of a handshake by the initiator's username, without loading the entity or its users.
+     *
+     * @param username The username of the initiator.
+     * @return An Optional containing the handshake DTO if found.
+     */
+    @Query("""
+            select new com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto(
+                h.handshakeName, h.encryptedDetails, h.createdDate, h.mostRecentUpdateDate,
+                h.handshakeStatus, h.initiatorUsername, h.receiverUsername, h.version)
+            from Handshake h
+            where h.initiatorUsername = :username""")
+    Optional<HandshakeDto> findDtoByInitiatorUsername(@Param("username") String username);
+
+    /**
+     * Streams the DTO columns of every handshake initiated by a user, newest first, fetching
+     * {@value com.handshakr.handshakr_prototype.Constants#STREAM_FETCH_SIZE} rows per round trip so memory use does
+     * not grow with the number of handshakes. Must be consumed and closed inside a transaction.
+     *
+     * @param username The username of the initiator.
+     * @return A stream of the user's initiated handshakes.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("""
+            select new com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto(
+                h.handshakeName, h.encryptedDetails, h.createdDate, h.mostRecentUpdateDate,
+                h.handshakeStatus, h.initiatorUsername, h.receiverUsername, h.version)
+            from Handshake h
+            where h.initiatorUsername = :username
+            order by h.createdDate desc, h.id desc""")
+    Stream<HandshakeDto> streamByInitiatorUsername(@Param("username") String username);
+
+    /**
+     * Streams the DTO columns of every handshake received by a user, newest first, in fetch-size batches.
+     * Must be consumed and closed inside a transaction.
+     *
+     * @param username The username of the receiver.
+     * @return A stream of the user's received handshakes.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("""
+            select new com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto(
+                h.handshakeName, h.encryptedDetails, h.createdDate, h.mostRecentUpdateDate,
+                h.handshakeStatus, h.initiatorUsername, h.receiverUsername, h.version)
+            from Handshake h
+            where h.receiverUsername = :username
+            order by h.createdDate desc, h.id desc""")
+    Stream<HandshakeDto> streamByReceiverUsername(@Param("username") String username);
+
+    /**
+     * Retrieves the newest handshakes initiated by a user, the first page of a keyset-paginated listing.
+     *
+     * @param username The username of the initiator.
+     * @param limit    The maximum number of handshakes to return.
+     * @return The handshake rows ordered by creation date then id, newest first.
+     */
+    @Query("""
+            select new com.handshakr.handshakr_prototype.handshake.HandshakeRow(
+                h.id, h.handshakeName, h.encryptedDetails, h.createdDate, h.mostRecentUpdateDate,
+                h.handshakeStatus, h.initiatorUsername, h.receiverUsername, h.version)
+            from Handshake h
+            where h.initiatorUsername = :username
+            order by h.createdDate desc, h.id desc""")
+    List<HandshakeRow> findByInitiatorUsernameOrderByCreatedDateDescIdDesc(@Param("username") String username,
+                                                                           Limit limit);
+
+    /**
+     * Retrieves the handshakes initiated by a user that come after a cursor, seeking past it through
+     * the (initiatorUsername, createdDate, id) index rather than skipping rows with an offset.
+     *
+     * @param username    The username of the initiator.
+     * @param createdDate The creation date of the last handshake on the previous page.
+     * @param id          The id of the last handshake on the previous page.
+     * @param limit       The maximum number of handshakes to return.
+     * @return The handshake rows after the cursor ordered by creation date then id, newest first.
+     */
+    @Query("""
+            select new com.handshakr.handshakr_prototype.handshake.HandshakeRow(
+                h.id, h.handshakeName, h.encryptedDetails, h.createdDate, h.mostRecentUpdateDate,
+                h.handshakeStatus, h.initiatorUsername, h.receiverUsername, h.version)
+            from Handshake h
+            where h.initiatorUsername = :username
+              and (h.createdDate < :createdDate or (h.createdDate = :createdDate and h.id < :id))
+            order by h.createdDate desc, h.id desc""")
+    List<HandshakeRow> findByInitiatorUsernameAfter(@Param("username") String username,
+                                                    @Param("createdDate") Instant createdDate,
+                                                    @Param("id") long id,
+                                                    Limit limit);
+
+    /**
+     * Retrieves the newest handshakes received by a user, the first page of a keyset-paginated listing.
+     *
+     * @param username The username of the receiver.
+     * @param limit    The maximum number of handshakes to return.
+     * @return The handshake rows ordered by creation date then id, newest first.
+     */
+    @Query("""
+            select new com.handshakr.handshakr_prototype.handshake.HandshakeRow(
+                h.id, h.handshakeName, h.encryptedDetails, h.createdDate, h.mostRecentUpdateDate,
+                h.handshakeStatus, h.initiatorUsername, h.receiverUsername, h.version)
+            from Handshake h
+            where h.receiverUsername = :username
+            order by h.createdDate desc, h.id desc""")
+    List<HandshakeRow> findByReceiverUsernameOrderByCreatedDateDescIdDesc(@Param("username") String username,
+                                                                          Limit limit);
+
+    /**
+     * Retrieves the handshakes received by a user that come after a cursor, seeking past it through
+     * the (receiverUsername, createdDate, id) index rather than skipping rows with an offset.
+     *
+     * @param username    The username of the receiver.
+     * @param createdDate The creation date of the last handshake on the previous page.
+     * @param id          The id of the last handshake on the previous page.
+     * @param limit       The maximum number of handshakes to return.
+     * @return The handshake rows after the cursor ordered by creation date then id, newest first.
+     */
+    @Query("""
+            select new com.handshakr.handshakr_prototype.handshake.HandshakeRow(
+                h.id, h.handshakeName, h.encryptedDetails, h.createdDate, h.mostRecentUpdateDate,
+                h.handshakeStatus, h.initiatorUsername, h.receiverUsername, h.version)
+            from Handshake h
+            where h.receiverUsername = :username
+              and (h.createdDate < :createdDate or (h.createdDate = :createdDate and h.id < :id))
+            order by h.createdDate desc, h.id desc""")
+    List<HandshakeRow> findByReceiverUsernameAfter(@Param("username") String username,
+                                                   @Param("createdDate") Instant createdDate,
+                                                   @Param("id") long id,
+                                                   Limit limit);
+
+    /**
+     * Retrieves one page of a user's inbox: the handshakes they initiated and the ones they received, merged
+     * newest first. Each direction is read as its own branch seeking through its (username, createdDate, id)
+     * index and stopping after {@code limit} rows, so the merge never sees more than twice the page size.
+     * A handshake a user sent to themselves appears once, as sent.
+     *
+     * @param username   The username of the inbox owner.
+     * @param statuses   The statuses to include.
+     * @param from       The earliest creation date to include.
+     * @param beforeDate The creation date every handshake must be before, together with {@code beforeId}.
+     * @param beforeId   The id breaking ties with {@code beforeDate}; pass {@link Long#MIN_VALUE} to exclude the
+     *                   whole date.
+     * @param limit      The maximum number of handshakes to return.
+     * @return The handshake rows ordered by creation date then id, newest first.
+     */
+    @Query("""
+            select new com.handshakr.handshakr_prototype.handshake.HandshakeRow(
+                r.id, r.handshakeName, r.encryptedDetails, r.createdDate, r.mostRecentUpdateDate,
+                r.handshakeStatus, r.initiatorUsername, r.receiverUsername, r.version)
+            from ((select h.id as id, h.handshakeName as handshakeName, h.encryptedDetails as encryptedDetails,
+                      h.createdDate as createdDate, h.mostRecentUpdateDate as mostRecentUpdateDate,
+                      h.handshakeStatus as handshakeStatus, h.initiatorUsername as initiatorUsername,
+                      h.receiverUsername as receiverUsername, h.version as version
+                   from Handshake h
+                   where h.initiatorUsername = :username
+                     and h.handshakeStatus in :statuses and h.createdDate >= :from
+                     and (h.createdDate, h.id) < (:beforeDate, :beforeId)
+                   order by h.createdDate desc, h.id desc
+                   limit :limit)
+                  union all
+                  (select h.id as id, h.handshakeName as handshakeName, h.encryptedDetails as encryptedDetails,
+                      h.createdDate as createdDate, h.mostRecentUpdateDate as mostRecentUpdateDate,
+                      h.handshakeStatus as handshakeStatus, h.initiatorUsername as initiatorUsername,
+                      h.receiverUsername as receiverUsername, h.version as version
+                   from Handshake h
+                   where h.receiverUsername = :username and h.initiatorUsername <> :username
+                     and h.handshakeStatus in :statuses and h.createdDate >= :from
+                     and (h.createdDate, h.id) < (:beforeDate, :beforeId)
+                   order by h.createdDate desc, h.id desc
+                   limit :limit)) r
+            order by r.createdDate desc, r.id desc
+            limit :limit""")
+    List<HandshakeRow> findInbox(@Param("username") String username,
+                                 @Param("statuses") Collection<HandshakeStatus> statuses,
+                                 @Param("from") Instant from,
+                                 @Param("beforeDate") Instant beforeDate,
+                                 @Param("beforeId") long beforeId,
+                                 @Param("limit") int limit);
+
+    /**
+     * Counts a user's handshakes created in a date range, grouped by direction and status.
+     *
+     * @param username The username of the inbox owner.
+     * @param from     The earliest creation date to count.
+     * @param to       The creation date to count up to, exclusive.
+     * @return One count per direction and status that has any handshakes.
+     */
+    @Query("""
+            select case when h.initiatorUsername = :username then true else false end as sent,
+                   h.handshakeStatus as handshakeStatus, count(h) as total
+            from Handshake h
+            where (h.initiatorUsername = :username or h.receiverUsername = :username)
+              and h.createdDate >= :from and h.createdDate < :to
+            group by 1, 2""")
+    List<StatusCount> countInbox(@Param("username") String username,
+                                 @Param("from") Instant from,
+                                 @Param("to") Instant to);
+
+    /**
+     * Reads the fingerprint of the handshakes a user initiated: how many there are and the sum of their versions.
+     * The version is included in the initiator's (username, createdDate, id) index, so this never reads the
+     * handshakes themselves.
+     *
+     * @param username The username of the initiator.
+     * @return The fingerprint.
+     */
+    @Query("""
+            select new com.handshakr.handshakr_prototype.handshake.HandshakeListVersion(
+                count(h), coalesce(sum(h.version), 0))
+            from Handshake h
+            where h.initiatorUsername = :username""")
+    HandshakeListVersion findListVersionByInitiatorUsername(@Param("username") String username);
+
+    /**
+     * Reads the fingerprint of the handshakes a user received, off the receiver's index.
+     *
+     * @param username The username of the receiver.
+     * @return The fingerprint.
+     */
+    @Query("""
+            select new com.handshakr.handshakr_prototype.handshake.HandshakeListVersion(
+                count(h), coalesce(sum(h.version), 0))
+            from Handshake h
+            where h.receiverUsername = :username""")
+    HandshakeListVersion findListVersionByReceiverUsername(@Param("username") String username);
+
+    /**
+     * Reads the fingerprint of a user's whole inbox, the handshakes they sent and received. Each direction is
+     * read off its own index; a handshake a user sent to themselves is counted twice, which still changes
+     * whenever the inbox does.
+     *
+     * @param username The username of the inbox owner.
+     * @return The fingerprint.
+     */
+    @Query("""
+            select new com.handshakr.handshakr_prototype.handshake.HandshakeListVersion(
+                count(*), coalesce(sum(r.version), 0))
+            from ((select h.version as version
+                   from Handshake h
+                   where h.initiatorUsername = :username)
+                  union all
+                  (select h.version as version
+                   from Handshake h
+                   where h.receiverUsername = :username)) r""")
+    HandshakeListVersion findInboxVersion(@Param("username") String username);
+
+    /**
+     * Reads only the status and version of a handshake.
+     *
+     * @param handshakeName The unique name of the handshake.
+     * @return An Optional containing the status and version if the handshake exists.
+     */
+    @Query("""
+            select new com.handshakr.handshakr_prototype.handshake.HandshakeState(h.handshakeStatus, h.version)
+            from Handshake h
+            where h.handshakeName = :handshakeName""")
+    Optional<HandshakeState> findStateByHandshakeName(@Param("handshakeName") String handshakeName);
+
+    /**
+     * Moves a handshake to a new status in a single statement, but only if its current status is one of the
+     * given predecessors and, when an expected version is given, its version still equals it. Concurrent
+     * conflicting transitions serialize on the row: the first to commit wins, and the other then no longer
+     * matches and updates nothing. The version is incremented on every transition.
+     *
+     * @param handshakeName   The unique name of the handshake.
+     * @param from            The statuses the handshake may currently be in.
+     * @param to              The new status.
+     * @param expectedVersion The version the handshake must still have, or null to update any version.
+     * @param updatedAt       The time of the update.
+     * @return The number of handshakes updated, 0 or 1.
+     */
+    @Modifying
+    @Query("""
+            update Handshake h
+            set h.handshakeStatus = :to, h.mostRecentUpdateDate = :updatedAt, h.version = h.version + 1
+            where h.handshakeName = :handshakeName and h.handshakeStatus in :from
+            and (:expectedVersion is null or h.version = :expectedVersion)""")
+    int transition(@Param("handshakeName") String handshakeName,
+                   @Param("from") Collection<HandshakeStatus> from,
+                   @Param("to") HandshakeStatus to,
+                   @Param("expectedVersion") Long expectedVersion,
+                   @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Moves every named handshake whose current status is one of the given predecessors to a new status, in a
+     * single statement, and returns the names it updated. Statuses are passed as ordinals, the way
+     * {@link Handshake} stores them.
+     *
+     * @param handshakeNames The unique names of the handshakes.
+     * @param from           The ordinals of the statuses the handshakes may currently be in.
+     * @param to             The ordinal of the new status.
+     * @param updatedAt      The time of the update.
+     * @return The names of the handshakes that were updated.
+     */
+    @Query(nativeQuery = true, value = """
+            update handshakes
+            set handshake_status = :to, most_recent_update_date = :updatedAt, version = version + 1
+            where handshake_name in (:handshakeNames) and handshake_status in (:from)
+            returning handshake_name""")
+    List<String> transitionAll(@Param("handshakeNames") Collection<String> handshakeNames,
+                               @Param("from") Collection<Integer> from,
+                               @Param("to") int to,
+                               @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Reads the name and status of each of the given handshakes that exists.
+     *
+     * @param handshakeNames The unique names of the handshakes.
+     * @return The name and status of every matching handshake.
+     */
+    @Query("""
+            select h.handshakeName as handshakeName, h.handshakeStatus as handshakeStatus
+            from Handshake h
+            where h.handshakeName in :handshakeNames""")
+    List<NamedStatus> findStatusesByHandshakeNameIn(@Param("handshakeNames") Collection<String> handshakeNames);
+
     /**
      * Checks if a handshake with a given name already exists.
      *
@@ -58,4 +472,21 @@ public interface HandshakeRepository extends CrudRepository<Handshake, Long> {
      * @return True if the handshake name already exists, false otherwise.
      */
     boolean existsByHandshakeName(String handshakeName);
+
+    /**
+     * Projection of a handshake's name and status.
+     */
+    interface NamedStatus {
+        String getHandshakeName();
+        HandshakeStatus getHandshakeStatus();
+    }
+
+    /**
+     * Projection of the number of a user's handshakes in one direction and status.
+     */
+    interface StatusCount {
+        Boolean getSent();
+        HandshakeStatus getHandshakeStatus();
+        Long getTotal();
+    }
 }
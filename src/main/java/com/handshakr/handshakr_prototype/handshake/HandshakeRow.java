@@ -0,0 +1,39 @@
+package com.handshakr.handshakr_prototype.handshake;
+
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto;
+
+import java.time.Instant;
+
+/**
+ * Projection of the handshake columns needed for a page of listings: the {@link HandshakeDto} fields plus the
+ * id that positions the next page's cursor. Selected with a constructor expression, so neither the entity nor
+ * its users are loaded.
+ */
+public record HandshakeRow(
+        Long id,
+        String handshakeName,
+        String encryptedDetails,
+        Instant createdDate,
+        Instant mostRecentUpdateDate,
+        HandshakeStatus handshakeStatus,
+        String initiatorUsername,
+        String receiverUsername,
+        long version) {
+
+    /**
+     * Converts the row to the DTO returned to clients.
+     *
+     * @return the corresponding HandshakeDto
+     */
+    public HandshakeDto toDto() {
+        return new HandshakeDto(
+                handshakeName,
+                encryptedDetails,
+                createdDate,
+                mostRecentUpdateDate,
+                handshakeStatus,
+                initiatorUsername,
+                receiverUsername,
+                version);
+    }
+}
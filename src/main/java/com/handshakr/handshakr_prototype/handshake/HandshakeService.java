@@ -1,9 +1,16 @@
 package com.handshakr.handshakr_prototype.handshake;
 
 import com.handshakr.handshakr_prototype.handshake.dto.CreateHandshakeRequest;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeCreationResult;
 import com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeInbox;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeTransitionResult;
+import com.handshakr.handshakr_prototype.response.CursorPage;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Service interface for managing handshakes.
@@ -16,16 +23,45 @@ public interface HandshakeService {
      *
      * @param request The details for creating a handshake.
      * @param initiatorUsername The username of the user initiating the handshake.
+     * @return A DTO representing the created handshake.
      */
-    void createHandshake(CreateHandshakeRequest request, String initiatorUsername);
+    HandshakeDto createHandshake(CreateHandshakeRequest request, String initiatorUsername);
 
     /**
-     * Updates the status of an existing handshake.
+     * Creates many handshakes for one initiator. Each request succeeds or fails on its own, so one bad entry
+     * does not stop the rest.
+     *
+     * @param requests The details of each handshake, at most
+     *                 {@value com.handshakr.handshakr_prototype.Constants#MAX_BULK_HANDSHAKES}.
+     * @param initiatorUsername The username of the user initiating the handshakes.
+     * @return One result per request, in request order.
+     */
+    List<HandshakeCreationResult> createHandshakes(List<CreateHandshakeRequest> requests, String initiatorUsername);
+
+    /**
+     * Updates the status of an existing handshake if its current status allows the transition and, when an
+     * expected version is given, nobody has updated it since that version was read.
      *
      * @param handshakeName The unique name of the handshake to update.
      * @param status The new status for the handshake.
+     * @param expectedVersion The version the client last read, or null to skip the check.
+     * @throws com.handshakr.handshakr_prototype.exceptions.handshake.HandshakeVersionMismatchException
+     *         if the handshake's version is no longer {@code expectedVersion}
+     * @throws com.handshakr.handshakr_prototype.exceptions.handshake.HandshakeInvalidTransitionException
+     *         if the handshake's current status cannot move to {@code status}
      */
-    void updateHandshake(String handshakeName, HandshakeStatus status);
+    void updateHandshake(String handshakeName, HandshakeStatus status, Long expectedVersion);
+
+    /**
+     * Moves many handshakes to the same status at once, following the same transition rules as
+     * {@link #updateHandshake}. Each handshake succeeds or fails on its own.
+     *
+     * @param handshakeNames The unique names of the handshakes, at most
+     *                       {@value com.handshakr.handshakr_prototype.Constants#MAX_BULK_HANDSHAKES}.
+     * @param status The new status for the handshakes.
+     * @return One result per distinct name, in request order.
+     */
+    List<HandshakeTransitionResult> updateHandshakes(List<String> handshakeNames, HandshakeStatus status);
 
     /**
      * Retrieves the handshake associated with the given acceptor username.
@@ -52,18 +88,84 @@ public interface HandshakeService {
     HandshakeDto getHandshakeByName(String handshakeName);
 
     /**
-     * Retrieves all handshakes initiated by a specific user.
+     * Retrieves one page of the handshakes initiated by a specific user, newest first.
+     *
+     * @param username The username of the initiator.
+     * @param cursor The continuation token from the previous page, or null for the first page.
+     * @param limit The requested page size, capped at {@link com.handshakr.handshakr_prototype.Constants#MAX_PAGE_SIZE}.
+     * @return A page of DTOs and the token for the next page.
+     */
+    CursorPage<HandshakeDto> getHandshakesByInitiator(String username, String cursor, int limit);
+
+    /**
+     * Retrieves one page of the handshakes received by a specific user, newest first.
+     *
+     * @param username The username of the acceptor.
+     * @param cursor The continuation token from the previous page, or null for the first page.
+     * @param limit The requested page size, capped at {@link com.handshakr.handshakr_prototype.Constants#MAX_PAGE_SIZE}.
+     * @return A page of DTOs and the token for the next page.
+     */
+    CursorPage<HandshakeDto> getHandshakesByAcceptor(String username, String cursor, int limit);
+
+    /**
+     * Passes every handshake initiated by a specific user to the given action, newest first and one at a time,
+     * without holding them all in memory. Failures reading the first batch are reported as usual; later ones
+     * propagate as they are.
      *
      * @param username The username of the initiator.
-     * @return A list of DTOs representing all handshakes initiated by the user.
+     * @param action Receives each handshake.
      */
-    List<HandshakeDto> getHandshakesByInitiator(String username);
+    void forEachHandshakeByInitiator(String username, Consumer<? super HandshakeDto> action);
 
     /**
-     * Retrieves all handshakes received by a specific user.
+     * Passes every handshake received by a specific user to the given action, newest first and one at a time,
+     * without holding them all in memory. Failures reading the first batch are reported as usual; later ones
+     * propagate as they are.
      *
      * @param username The username of the acceptor.
-     * @return A list of DTOs representing all handshakes received by the user.
+     * @param action Receives each handshake.
+     */
+    void forEachHandshakeByAcceptor(String username, Consumer<? super HandshakeDto> action);
+
+    /**
+     * Retrieves one page of a user's inbox, the handshakes they initiated and received merged newest first, with
+     * their handshake counts by direction and status.
+     *
+     * @param username The username of the inbox owner.
+     * @param statuses The statuses to list, or null or empty for all of them. Counts always cover every status.
+     * @param from The earliest creation date to include, or null for no lower bound.
+     * @param to The creation date to include handshakes up to, exclusive, or null for no upper bound.
+     * @param cursor The continuation token from the previous page, or null for the first page.
+     * @param limit The requested page size, capped at {@link com.handshakr.handshakr_prototype.Constants#MAX_PAGE_SIZE}.
+     * @return A page of DTOs, the token for the next page and the counts.
+     */
+    HandshakeInbox getInbox(String username, Set<HandshakeStatus> statuses, Instant from, Instant to,
+                            String cursor, int limit);
+
+    /**
+     * Reads the fingerprint of the handshakes initiated by a specific user, which changes whenever any page of
+     * {@link #getHandshakesByInitiator} could, without reading the handshakes.
+     *
+     * @param username The username of the initiator.
+     * @return The count and latest change of the user's initiated handshakes.
+     */
+    HandshakeListVersion getHandshakesByInitiatorVersion(String username);
+
+    /**
+     * Reads the fingerprint of the handshakes received by a specific user, which changes whenever any page of
+     * {@link #getHandshakesByAcceptor} could, without reading the handshakes.
+     *
+     * @param username The username of the acceptor.
+     * @return The count and latest change of the user's received handshakes.
+     */
+    HandshakeListVersion getHandshakesByAcceptorVersion(String username);
+
+    /**
+     * Reads the fingerprint of a user's inbox, which changes whenever any page or count of {@link #getInbox}
+     * could, whatever its filters, without reading the handshakes.
+     *
+     * @param username The username of the inbox owner.
+     * @return The count and latest change of the user's sent and received handshakes.
      */
-    List<HandshakeDto> getHandshakesByAcceptor(String username);
+    HandshakeListVersion getInboxVersion(String username);
 }
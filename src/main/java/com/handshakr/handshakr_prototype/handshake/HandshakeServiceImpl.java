@@ -1,18 +1,41 @@
 package com.handshakr.handshakr_prototype.handshake;
 
 import com.handshakr.handshakr_prototype.exceptions.HandshakeExceptionFactory;
-import com.handshakr.handshakr_prototype.exceptions.user.UserNotFoundException;
 import com.handshakr.handshakr_prototype.handshake.dto.CreateHandshakeRequest;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeCreationResult;
 import com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeInbox;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeTransitionResult;
+import com.handshakr.handshakr_prototype.handshake.outbox.HandshakeEventType;
+import com.handshakr.handshakr_prototype.handshake.outbox.HandshakeOutboxRepository;
+import com.handshakr.handshakr_prototype.response.CursorPage;
 import com.handshakr.handshakr_prototype.user.User;
 import com.handshakr.handshakr_prototype.user.UserService;
 import jakarta.transaction.Transactional;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.handshakr.handshakr_prototype.Constants.MAX_BULK_HANDSHAKES;
+import static com.handshakr.handshakr_prototype.Constants.MAX_PAGE_SIZE;
 
 /**
  * Implementation of the HandshakeService interface.
@@ -20,53 +43,67 @@ import java.util.stream.Collectors;
  */
 @Service
 public class HandshakeServiceImpl implements HandshakeService{
+    // Inbox bounds used when the client leaves the date range open
+    private static final Instant NO_LOWER_BOUND = Instant.EPOCH;
+    private static final Instant NO_UPPER_BOUND = Instant.parse("9999-12-31T00:00:00Z");
+
     private final UserService userService;
     private final HandshakeRepository repository;
+    private final HandshakeCache cache;
+    private final HandshakeOutboxRepository outbox;
     private final HandshakeExceptionFactory exceptionFactory;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public HandshakeServiceImpl(UserService userService, HandshakeRepository repository, HandshakeExceptionFactory exceptionFactory) {
+    public HandshakeServiceImpl(UserService userService, HandshakeRepository repository, HandshakeCache cache,
+                                HandshakeOutboxRepository outbox, HandshakeExceptionFactory exceptionFactory,
+                                ApplicationEventPublisher eventPublisher) {
         this.userService = userService;
         this.repository = repository;
+        this.cache = cache;
+        this.outbox = outbox;
         this.exceptionFactory = exceptionFactory;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * {@inheritDoc}
+     *
+     * <p>Both users are resolved in one query and the handshake is inserted without checking its name first;
+     * a duplicate name is reported from the unique constraint the insert violates.</p>
      */
     @Override
     @Transactional
-    public void createHandshake(CreateHandshakeRequest request, String initiatorUsername) {
+    public HandshakeDto createHandshake(CreateHandshakeRequest request, String initiatorUsername) {
         // Validate request
         if (request == null) {
             throw exceptionFactory.badRequest("Handshake request cannot be null");
         }
 
-        try {
-            User initiator = userService.findByUsername(initiatorUsername);
-            User acceptor = userService.findByUsername(request.receiverUsername());
-
-            // Check if handshake name already exists
-            if (repository.existsByHandshakeName(request.handshakeName())) {
-                throw exceptionFactory.handshakeAlreadyExists(request.handshakeName());
-            }
+        Map<String, User> users = userService.findAllByUsername(List.of(initiatorUsername, request.receiverUsername()));
+        User initiator = users.get(initiatorUsername);
+        User acceptor = users.get(request.receiverUsername());
+        if (initiator == null || acceptor == null) {
+            throw exceptionFactory.badRequest(
+                    String.format("User not found: %s", acceptor == null ? "receiver" : "initiator"));
+        }
 
-            Handshake newHandshake = new Handshake(
+        try {
+            Handshake saved = repository.saveAndFlush(new Handshake(
                     request.handshakeName(),
                     request.encryptedDetails(),
                     initiatorUsername,
                     request.receiverUsername(),
                     initiator,
-                    acceptor);
-
-            repository.save(newHandshake);
-
-        } catch (UserNotFoundException e) {
-            throw exceptionFactory.badRequest(
-                    String.format("User not found: %s",
-                            e.getMessage().contains(request.receiverUsername()) ?
-                                    "receiver" : "initiator"));
+                    acceptor));
+            recordChanges(List.of(saved.getHandshakeName()), HandshakeEventType.CREATED);
+            return HandshakeDto.from(saved);
 
         } catch (DataIntegrityViolationException e) {
+            String constraint = e.getCause() instanceof ConstraintViolationException violation
+                    ? violation.getConstraintName() : null;
+            if (Handshake.HANDSHAKE_NAME_CONSTRAINT.equalsIgnoreCase(constraint)) {
+                throw exceptionFactory.handshakeAlreadyExists(request.handshakeName());
+            }
             throw exceptionFactory.databaseError(
                     "Failed to create handshake: " + e.getMostSpecificCause().getMessage());
 
@@ -76,29 +113,220 @@ public class HandshakeServiceImpl implements HandshakeService{
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>All handshakes are moved by one conditional update that reports the names it changed. Only when some
+     * were not changed are their statuses read, in one more query, to tell missing handshakes from disallowed
+     * transitions.</p>
+     */
+    @Override
+    @Transactional
+    public List<HandshakeTransitionResult> updateHandshakes(List<String> handshakeNames, HandshakeStatus status) {
+        if (handshakeNames == null || handshakeNames.isEmpty()) {
+            throw exceptionFactory.badRequest("Handshake names cannot be empty");
+        }
+        if (status == null) {
+            throw exceptionFactory.badRequest("Handshake status is required");
+        }
+        if (handshakeNames.size() > MAX_BULK_HANDSHAKES) {
+            throw exceptionFactory.badRequest(
+                    "At most " + MAX_BULK_HANDSHAKES + " handshakes can be updated at once");
+        }
+
+        Set<String> names = new LinkedHashSet<>(handshakeNames);
+        boolean hasBlank = names.removeIf(HandshakeServiceImpl::isBlank);
+
+        Set<String> updated;
+        Map<String, HandshakeStatus> current = Map.of();
+        try {
+            List<Integer> predecessors = status.predecessors().stream().map(Enum::ordinal).toList();
+            updated = names.isEmpty() || predecessors.isEmpty() ? Set.of() : new HashSet<>(
+                    repository.transitionAll(names, predecessors, status.ordinal(), Instant.now()));
+            recordChanges(updated, HandshakeEventType.STATUS_CHANGED);
+            if (updated.size() < names.size()) {
+                current = repository.findStatusesByHandshakeNameIn(names).stream().collect(Collectors.toMap(
+                        HandshakeRepository.NamedStatus::getHandshakeName,
+                        HandshakeRepository.NamedStatus::getHandshakeStatus));
+            }
+        } catch (Exception e) {
+            throw exceptionFactory.databaseError(
+                    "Failed to update handshakes: " + e.getMessage());
+        }
+
+        List<HandshakeTransitionResult> results = new ArrayList<>(names.size() + 1);
+        if (hasBlank) {
+            results.add(HandshakeTransitionResult.failed(null, "Handshake name cannot be empty"));
+        }
+        for (String name : names) {
+            HandshakeStatus from = current.get(name);
+            if (updated.contains(name)) {
+                results.add(HandshakeTransitionResult.updated(name));
+            } else if (from == null) {
+                results.add(HandshakeTransitionResult.failed(name,
+                        String.format("Handshake with name '%s' not found", name)));
+            } else {
+                results.add(HandshakeTransitionResult.failed(name,
+                        String.format("Handshake '%s' cannot move from %s to %s", name, from, status)));
+            }
+        }
+        return results;
+    }
 
     /**
      * {@inheritDoc}
+     *
+     * <p>Every receiver is resolved in one query, and the valid handshakes are then inserted in one statement
+     * that skips names already taken. A name taken by a concurrent request is skipped the same way, so it fails
+     * on its own instead of rolling back the rest.</p>
      */
     @Override
     @Transactional
-    public void updateHandshake(String handshakeName, HandshakeStatus status) {
-        if (handshakeName == null || handshakeName.isBlank()) {
-            throw exceptionFactory.badRequest("Handshake name cannot be empty");
+    public List<HandshakeCreationResult> createHandshakes(List<CreateHandshakeRequest> requests,
+                                                          String initiatorUsername) {
+        if (requests == null || requests.isEmpty()) {
+            throw exceptionFactory.badRequest("Handshake requests cannot be empty");
+        }
+        if (requests.size() > MAX_BULK_HANDSHAKES) {
+            throw exceptionFactory.badRequest(
+                    "At most " + MAX_BULK_HANDSHAKES + " handshakes can be created at once");
+        }
+
+        HandshakeCreationResult[] results = new HandshakeCreationResult[requests.size()];
+        Set<String> names = new HashSet<>();
+        Set<String> usernames = new HashSet<>(List.of(initiatorUsername));
+        for (int i = 0; i < requests.size(); i++) {
+            CreateHandshakeRequest request = requests.get(i);
+            String problem = invalidRequest(request, names);
+            if (problem != null) {
+                results[i] = HandshakeCreationResult.failed(request == null ? null : request.handshakeName(), problem);
+            } else {
+                usernames.add(request.receiverUsername());
+            }
+        }
+
+        Map<String, User> users = userService.findAllByUsername(usernames);
+        User initiator = users.get(initiatorUsername);
+        if (initiator == null) {
+            throw exceptionFactory.badRequest("User not found: initiator");
         }
 
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            CreateHandshakeRequest request = requests.get(i);
+            if (users.get(request.receiverUsername()) == null) {
+                results[i] = HandshakeCreationResult.failed(request.handshakeName(), "User not found: receiver");
+            } else {
+                pending.add(i);
+            }
+        }
+        if (pending.isEmpty()) {
+            return List.of(results);
+        }
+
+        List<CreateHandshakeRequest> inserting = pending.stream().map(requests::get).toList();
+        Instant createdAt = Instant.now();
+        Set<String> inserted;
         try {
-            Handshake toUpdate = repository.findByHandshakeName(handshakeName)
-                    .orElseThrow(() -> exceptionFactory.handshakeNotFound(handshakeName));
+            inserted = new HashSet<>(repository.insertAllIgnoringTaken(
+                    inserting.stream().map(CreateHandshakeRequest::handshakeName).toArray(String[]::new),
+                    inserting.stream().map(CreateHandshakeRequest::encryptedDetails).toArray(String[]::new),
+                    inserting.stream().map(CreateHandshakeRequest::receiverUsername).toArray(String[]::new),
+                    inserting.stream().map(request -> users.get(request.receiverUsername()).getId())
+                            .toArray(Long[]::new),
+                    initiatorUsername, initiator.getId(), HandshakeStatus.CREATED.ordinal(), createdAt,
+                    Handshake.ID_ALLOCATION_SIZE));
+            recordChanges(inserted, HandshakeEventType.CREATED);
+        } catch (Exception e) {
+            throw exceptionFactory.databaseError(
+                    "Failed to create handshakes: " + e.getMessage());
+        }
+
+        for (int i : pending) {
+            CreateHandshakeRequest request = requests.get(i);
+            results[i] = inserted.contains(request.handshakeName())
+                    ? HandshakeCreationResult.created(new HandshakeDto(request.handshakeName(),
+                            request.encryptedDetails(), createdAt, null, HandshakeStatus.CREATED,
+                            initiatorUsername, request.receiverUsername(), 0))
+                    : HandshakeCreationResult.failed(request.handshakeName(),
+                            String.format("Handshake with name '%s' already exists", request.handshakeName()));
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Checks one entry of a bulk create on its own, recording its name so later duplicates are caught.
+     *
+     * @return why the request cannot be created, or null if it is valid
+     */
+    private static String invalidRequest(CreateHandshakeRequest request, Set<String> names) {
+        if (request == null) {
+            return "Handshake request cannot be null";
+        }
+        if (isBlank(request.handshakeName()) || isBlank(request.encryptedDetails())
+                || isBlank(request.receiverUsername())) {
+            return "Handshake name, details and receiver are required";
+        }
+        if (!names.add(request.handshakeName())) {
+            return "Duplicate handshake name in request";
+        }
+        return null;
+    }
+
+    /**
+     * Records changes to handshakes in the current transaction: one outbox event each, written in a single
+     * statement, and an application event for listeners that push the changes once they commit.
+     */
+    private void recordChanges(Collection<String> handshakeNames, HandshakeEventType type) {
+        if (handshakeNames.isEmpty()) {
+            return;
+        }
+        outbox.record(handshakeNames, type.name(), Instant.now());
+        eventPublisher.publishEvent(new HandshakeChangedEvent(handshakeNames));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
 
-            toUpdate.setMostRecentUpdateDate(Instant.now());
-            toUpdate.setHandshakeStatus(status);
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The transition is a single conditional update that only matches a handshake in one of the
+     * {@link HandshakeStatus#predecessors() allowed predecessor} statuses, and at the expected version if one
+     * is given. Only when it matches nothing is the handshake read again, to tell a missing handshake, a stale
+     * version and a disallowed transition apart.</p>
+     */
+    @Override
+    @Transactional
+    public void updateHandshake(String handshakeName, HandshakeStatus status, Long expectedVersion) {
+        if (handshakeName == null || handshakeName.isBlank()) {
+            throw exceptionFactory.badRequest("Handshake name cannot be empty");
+        }
 
-            repository.save(toUpdate);
+        Optional<HandshakeState> current;
+        try {
+            Set<HandshakeStatus> predecessors = status.predecessors();
+            if (!predecessors.isEmpty() && repository.transition(
+                    handshakeName, predecessors, status, expectedVersion, Instant.now()) == 1) {
+                recordChanges(List.of(handshakeName), HandshakeEventType.STATUS_CHANGED);
+                return;
+            }
+            current = repository.findStateByHandshakeName(handshakeName);
         } catch (Exception e) {
             throw exceptionFactory.databaseError(
                     "Failed to update handshake: " + e.getMessage());
         }
+
+        HandshakeState state = current.orElseThrow(() -> exceptionFactory.handshakeNotFound(handshakeName));
+        if (expectedVersion != null && state.version() != expectedVersion) {
+            throw exceptionFactory.versionMismatch(handshakeName, expectedVersion, state.version());
+        }
+        throw exceptionFactory.invalidTransition(handshakeName, state.handshakeStatus(), status);
     }
 
     /**
@@ -108,9 +336,8 @@ public class HandshakeServiceImpl implements HandshakeService{
     public HandshakeDto getHandshakeByAcceptor(String username) {
         validateUsername(username);
         try {
-            return HandshakeDto.from(
-                    repository.findByReceiverUsername(username)
-                            .orElseThrow(() -> exceptionFactory.receiverNotFound(username)));
+            return repository.findDtoByReceiverUsername(username)
+                    .orElseThrow(() -> exceptionFactory.receiverNotFound(username));
         } catch (Exception e) {
             throw exceptionFactory.serviceUnavailable(
                     "Failed to retrieve handshake by acceptor: " + e.getMessage());
@@ -124,9 +351,8 @@ public class HandshakeServiceImpl implements HandshakeService{
     public HandshakeDto getHandshakeByInitiator(String username) {
         validateUsername(username);
         try {
-            return HandshakeDto.from(
-                    repository.findByInitiatorUsername(username)
-                            .orElseThrow(() -> exceptionFactory.initiatorNotFound(username)));
+            return repository.findDtoByInitiatorUsername(username)
+                    .orElseThrow(() -> exceptionFactory.initiatorNotFound(username));
         } catch (Exception e) {
             throw exceptionFactory.serviceUnavailable(
                     "Failed to retrieve handshake by initiator: " + e.getMessage());
@@ -135,33 +361,147 @@ public class HandshakeServiceImpl implements HandshakeService{
 
     /**
      * {@inheritDoc}
+     *
+     * <p>Reads through {@link HandshakeCache}, which evicts a handshake once a change to it commits.</p>
      */
     @Override
     public HandshakeDto getHandshakeByName(String handshakeName) {
         if (handshakeName == null || handshakeName.isBlank()) {
             throw exceptionFactory.badRequest("Handshake name cannot be empty");
         }
+        HandshakeDto handshake;
         try {
-            return HandshakeDto.from(
-                    repository.findByHandshakeName(handshakeName)
-                            .orElseThrow(() -> exceptionFactory.handshakeNotFound(handshakeName)));
+            handshake = cache.get(handshakeName, name -> repository.findDtoByHandshakeName(name).orElse(null));
         } catch (Exception e) {
             throw exceptionFactory.serviceUnavailable(
                     "Failed to retrieve handshake by name: " + e.getMessage());
         }
+        // Outside the try, so a missing handshake is reported as such rather than as the service failing
+        if (handshake == null) {
+            throw exceptionFactory.handshakeNotFound(handshakeName);
+        }
+        return handshake;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CursorPage<HandshakeDto> getHandshakesByInitiator(String username, String cursor, int limit) {
+        validateUsername(username);
+        HandshakeCursor after = decodeCursor(cursor);
+        try {
+            return page(limit, after, fetch -> after == null
+                    ? repository.findByInitiatorUsernameOrderByCreatedDateDescIdDesc(username, fetch)
+                    : repository.findByInitiatorUsernameAfter(username, after.createdDate(), after.id(), fetch));
+        } catch (Exception e) {
+            throw exceptionFactory.serviceUnavailable(
+                    "Failed to retrieve handshakes by initiator: " + e.getMessage());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CursorPage<HandshakeDto> getHandshakesByAcceptor(String username, String cursor, int limit) {
+        validateUsername(username);
+        HandshakeCursor after = decodeCursor(cursor);
+        try {
+            return page(limit, after, fetch -> after == null
+                    ? repository.findByReceiverUsernameOrderByCreatedDateDescIdDesc(username, fetch)
+                    : repository.findByReceiverUsernameAfter(username, after.createdDate(), after.id(), fetch));
+        } catch (Exception e) {
+            throw exceptionFactory.serviceUnavailable(
+                    "Failed to retrieve handshakes by acceptor: " + e.getMessage());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public void forEachHandshakeByInitiator(String username, Consumer<? super HandshakeDto> action) {
+        validateUsername(username);
+        Stream<HandshakeDto> handshakes;
+        try {
+            handshakes = repository.streamByInitiatorUsername(username);
+        } catch (Exception e) {
+            throw exceptionFactory.serviceUnavailable(
+                    "Failed to retrieve handshakes by initiator: " + e.getMessage());
+        }
+        try (handshakes) {
+            handshakes.forEach(action);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public void forEachHandshakeByAcceptor(String username, Consumer<? super HandshakeDto> action) {
+        validateUsername(username);
+        Stream<HandshakeDto> handshakes;
+        try {
+            handshakes = repository.streamByReceiverUsername(username);
+        } catch (Exception e) {
+            throw exceptionFactory.serviceUnavailable(
+                    "Failed to retrieve handshakes by acceptor: " + e.getMessage());
+        }
+        try (handshakes) {
+            handshakes.forEach(action);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The page comes from one query that merges both directions, each read off its own index; the counts
+     * come from one grouped query. An open date range is bounded by far-off sentinels so both queries keep a
+     * single shape.</p>
+     */
+    @Override
+    public HandshakeInbox getInbox(String username, Set<HandshakeStatus> statuses, Instant from, Instant to,
+                                   String cursor, int limit) {
+        validateUsername(username);
+        Instant lower = from == null ? NO_LOWER_BOUND : from;
+        Instant upper = to == null ? NO_UPPER_BOUND : to;
+        if (!lower.isBefore(upper)) {
+            throw exceptionFactory.badRequest("'from' must be before 'to'");
+        }
+        HandshakeCursor after = decodeCursor(cursor);
+        // The page ends before the cursor or, on the first page, before the whole of the upper bound's instant
+        HandshakeCursor before = after != null && after.createdDate().isBefore(upper)
+                ? after : new HandshakeCursor(upper, Long.MIN_VALUE);
+        Collection<HandshakeStatus> listed = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(HandshakeStatus.class) : statuses;
+
+        try {
+            CursorPage<HandshakeDto> page = page(limit, after, fetch -> repository.findInbox(
+                    username, listed, lower, before.createdDate(), before.id(), fetch.max()));
+
+            Map<HandshakeStatus, Long> sent = zeroCounts();
+            Map<HandshakeStatus, Long> received = zeroCounts();
+            for (HandshakeRepository.StatusCount count : repository.countInbox(username, lower, upper)) {
+                (count.getSent() ? sent : received).put(count.getHandshakeStatus(), count.getTotal());
+            }
+            return new HandshakeInbox(page.items(), page.nextCursor(), sent, received);
+        } catch (Exception e) {
+            throw exceptionFactory.serviceUnavailable(
+                    "Failed to retrieve inbox: " + e.getMessage());
+        }
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public List<HandshakeDto> getHandshakesByInitiator(String username) {
+    public HandshakeListVersion getHandshakesByInitiatorVersion(String username) {
         validateUsername(username);
         try {
-            return repository.findAllByInitiatorUsername(username)
-                    .stream()
-                    .map(HandshakeDto::from)
-                    .collect(Collectors.toList());
+            return repository.findListVersionByInitiatorUsername(username);
         } catch (Exception e) {
             throw exceptionFactory.serviceUnavailable(
                     "Failed to retrieve handshakes by initiator: " + e.getMessage());
@@ -172,19 +512,65 @@ public class HandshakeServiceImpl implements HandshakeService{
      * {@inheritDoc}
      */
     @Override
-    public List<HandshakeDto> getHandshakesByAcceptor(String username) {
+    public HandshakeListVersion getHandshakesByAcceptorVersion(String username) {
         validateUsername(username);
         try {
-            return repository.findAllByReceiverUsername(username)
-                    .stream()
-                    .map(HandshakeDto::from)
-                    .collect(Collectors.toList());
+            return repository.findListVersionByReceiverUsername(username);
         } catch (Exception e) {
             throw exceptionFactory.serviceUnavailable(
                     "Failed to retrieve handshakes by acceptor: " + e.getMessage());
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public HandshakeListVersion getInboxVersion(String username) {
+        validateUsername(username);
+        try {
+            return repository.findInboxVersion(username);
+        } catch (Exception e) {
+            throw exceptionFactory.serviceUnavailable(
+                    "Failed to retrieve inbox: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fetches one page, asking for a single extra row to learn whether another page follows without a count.
+     */
+    private CursorPage<HandshakeDto> page(int limit, HandshakeCursor after, Function<Limit, List<HandshakeRow>> query) {
+        int size = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        List<HandshakeRow> rows = query.apply(Limit.of(size + 1));
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows.stream().map(HandshakeRow::toDto).toList(), null);
+        }
+
+        List<HandshakeRow> items = rows.subList(0, size);
+        return new CursorPage<>(
+                items.stream().map(HandshakeRow::toDto).toList(),
+                HandshakeCursor.after(items.get(size - 1)).encode());
+    }
+
+    private static Map<HandshakeStatus, Long> zeroCounts() {
+        Map<HandshakeStatus, Long> counts = new EnumMap<>(HandshakeStatus.class);
+        for (HandshakeStatus status : HandshakeStatus.values()) {
+            counts.put(status, 0L);
+        }
+        return counts;
+    }
+
+    private HandshakeCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return HandshakeCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw exceptionFactory.badRequest("Invalid cursor");
+        }
+    }
+
     private void validateUsername(String username) {
         if (username == null || username.isBlank()) {
             throw exceptionFactory.badRequest("Username cannot be empty");
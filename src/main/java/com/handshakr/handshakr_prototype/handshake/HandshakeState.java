@@ -0,0 +1,11 @@
+package com.handshakr.handshakr_prototype.handshake;
+
+/**
+ * The status and optimistic-locking version of a handshake, read to explain why a conditional transition
+ * matched nothing.
+ *
+ * @param handshakeStatus the current status
+ * @param version         the current version
+ */
+public record HandshakeState(HandshakeStatus handshakeStatus, long version) {
+}
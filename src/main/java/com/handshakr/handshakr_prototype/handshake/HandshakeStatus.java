@@ -1,9 +1,69 @@
 package com.handshakr.handshakr_prototype.handshake;
 
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Enum representing the various possible statuses of a handshake.
  * This helps track the lifecycle of the handshake.
+ *
+ * <p>Statuses only move forward along the transitions below; {@code CANCELLED}, {@code COMPLETED} and
+ * {@code FAILED} are final. Accepting and cancelling
+ * are mutually exclusive: once either has happened the other is no longer allowed.</p>
+ * <pre>
+ * CREATED  -&gt; PENDING, ACCEPTED, CANCELLED, FAILED
+ * PENDING  -&gt; ACCEPTED, CANCELLED, FAILED
+ * ACCEPTED -&gt; COMPLETED, FAILED
+ * </pre>
  */
 public enum HandshakeStatus {
     CREATED, PENDING, ACCEPTED, CANCELLED, COMPLETED, FAILED;
+
+    private static final Map<HandshakeStatus, Set<HandshakeStatus>> PREDECESSORS = new EnumMap<>(HandshakeStatus.class);
+
+    static {
+        for (HandshakeStatus status : values()) {
+            PREDECESSORS.put(status, EnumSet.noneOf(HandshakeStatus.class));
+        }
+        allow(CREATED, PENDING, ACCEPTED, CANCELLED, FAILED);
+        allow(PENDING, ACCEPTED, CANCELLED, FAILED);
+        allow(ACCEPTED, COMPLETED, FAILED);
+    }
+
+    private static void allow(HandshakeStatus from, HandshakeStatus... to) {
+        for (HandshakeStatus next : to) {
+            PREDECESSORS.get(next).add(from);
+        }
+    }
+
+    /**
+     * Checks whether a handshake in this status may move to the given one.
+     *
+     * @param next the status to move to
+     * @return true if the transition is allowed
+     */
+    public boolean canTransitionTo(HandshakeStatus next) {
+        return PREDECESSORS.get(next).contains(this);
+    }
+
+    /**
+     * Checks whether this status is final, so a handshake in it never changes again.
+     *
+     * @return true if no transition leads out of this status
+     */
+    public boolean isFinal() {
+        return Arrays.stream(values()).noneMatch(this::canTransitionTo);
+    }
+
+    /**
+     * Returns every status a handshake may be in to move to this one.
+     *
+     * @return the allowed predecessor statuses, empty for {@code CREATED}
+     */
+    public Set<HandshakeStatus> predecessors() {
+        return Set.copyOf(PREDECESSORS.get(this));
+    }
 }
@@ -0,0 +1,40 @@
+package com.handshakr.handshakr_prototype.handshake.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The outcome of one entry of a bulk handshake creation.
+ *
+ * @param handshakeName the name the entry asked for
+ * @param created       whether the handshake was created
+ * @param handshake     the created handshake, or null if it was not created
+ * @param error         why the handshake was not created, or null if it was
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record HandshakeCreationResult(
+        String handshakeName,
+        boolean created,
+        HandshakeDto handshake,
+        String error) {
+
+    /**
+     * Creates the result of an entry that was created.
+     *
+     * @param handshake the created handshake
+     * @return the successful result
+     */
+    public static HandshakeCreationResult created(HandshakeDto handshake) {
+        return new HandshakeCreationResult(handshake.handshakeName(), true, handshake, null);
+    }
+
+    /**
+     * Creates the result of an entry that was rejected.
+     *
+     * @param handshakeName the name the entry asked for
+     * @param error         why it was rejected
+     * @return the failed result
+     */
+    public static HandshakeCreationResult failed(String handshakeName, String error) {
+        return new HandshakeCreationResult(handshakeName, false, null, error);
+    }
+}
@@ -9,6 +9,9 @@ import java.util.Date;
 /**
  * A Data Transfer Object (DTO) that represents a handshake.
  * Used to transfer the necessary data of a handshake between layers of the application.
+ *
+ * <p>{@code version} is the handshake's optimistic-locking version, which clients send back in
+ * {@code If-Match} to update the handshake only if nobody else has changed it since.</p>
  */
 public record HandshakeDto(
         String handshakeName,
@@ -17,7 +20,8 @@ public record HandshakeDto(
         Instant completedDate,
         HandshakeStatus handshakeStatus,
         String initiatorUsername,
-        String acceptorUsername) {
+        String acceptorUsername,
+        long version) {
     /**
      * Converts a Handshake entity to a HandshakeDto.
      *
@@ -32,7 +36,8 @@ public record HandshakeDto(
                 handshake.getMostRecentUpdateDate(),
                 handshake.getHandshakeStatus(),
                 handshake.getInitiatorUsername(),
-                handshake.getReceiverUsername()
+                handshake.getReceiverUsername(),
+                handshake.getVersion()
         );
     }
 }
@@ -0,0 +1,29 @@
+package com.handshakr.handshakr_prototype.handshake.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.handshakr.handshakr_prototype.handshake.HandshakeStatus;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a user's inbox, the handshakes they sent and received merged newest first, together with how
+ * many handshakes they have in each direction and status.
+ *
+ * <p>The counts cover the requested date range but ignore the status filter, so every status can show a badge
+ * whichever one is being listed. Every status appears in both maps, with zero when there are none.</p>
+ *
+ * @param items          the handshakes on this page, newest first
+ * @param nextCursor     the opaque token that fetches the page after this one, or null on the last page
+ * @param sentCounts     the number of handshakes the user initiated, by status
+ * @param receivedCounts the number of handshakes the user received, by status
+ */
+public record HandshakeInbox(List<HandshakeDto> items,
+                             @JsonInclude(JsonInclude.Include.NON_NULL) String nextCursor,
+                             Map<HandshakeStatus, Long> sentCounts,
+                             Map<HandshakeStatus, Long> receivedCounts) {
+
+    public HandshakeInbox {
+        items = List.copyOf(items);
+    }
+}
@@ -0,0 +1,35 @@
+package com.handshakr.handshakr_prototype.handshake.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The outcome of one handshake in a bulk status update.
+ *
+ * @param handshakeName the name of the handshake
+ * @param updated       whether the handshake moved to the requested status
+ * @param error         why it did not, or null if it did
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record HandshakeTransitionResult(String handshakeName, boolean updated, String error) {
+
+    /**
+     * Creates the result of a handshake that was updated.
+     *
+     * @param handshakeName the name of the handshake
+     * @return the successful result
+     */
+    public static HandshakeTransitionResult updated(String handshakeName) {
+        return new HandshakeTransitionResult(handshakeName, true, null);
+    }
+
+    /**
+     * Creates the result of a handshake that was not updated.
+     *
+     * @param handshakeName the name of the handshake
+     * @param error         why it was not updated
+     * @return the failed result
+     */
+    public static HandshakeTransitionResult failed(String handshakeName, String error) {
+        return new HandshakeTransitionResult(handshakeName, false, error);
+    }
+}
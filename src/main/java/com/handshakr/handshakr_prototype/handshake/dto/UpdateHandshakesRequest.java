@@ -0,0 +1,14 @@
+package com.handshakr.handshakr_prototype.handshake.dto;
+
+import com.handshakr.handshakr_prototype.handshake.HandshakeStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * A Data Transfer Object (DTO) for moving many handshakes to the same status at once.
+ */
+public record UpdateHandshakesRequest(
+        @NotEmpty List<String> handshakeNames,
+        @NotNull HandshakeStatus status) { }
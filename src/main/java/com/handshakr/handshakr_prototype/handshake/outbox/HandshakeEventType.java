@@ -0,0 +1,11 @@
+package com.handshakr.handshakr_prototype.handshake.outbox;
+
+/**
+ * The kinds of handshake lifecycle events recorded in the outbox.
+ */
+public enum HandshakeEventType {
+    /** A handshake was created. */
+    CREATED,
+    /** A handshake moved to a new status. */
+    STATUS_CHANGED
+}
@@ -0,0 +1,45 @@
+package com.handshakr.handshakr_prototype.handshake.outbox;
+
+import com.handshakr.handshakr_prototype.handshake.HandshakeStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A handshake lifecycle event in the transactional outbox, holding the handshake as it was right after the change.
+ *
+ * <p>Rows are inserted by {@link HandshakeOutboxRepository#record} in the transaction making the change, so an
+ * event exists exactly when its change was committed. {@link HandshakeOutboxRelay} later publishes each one as
+ * an application event and stamps {@link #getPublishedAt() publishedAt}.</p>
+ */
+@Entity
+@Table(name = "HandshakeOutbox", indexes = {
+        @Index(name = "idx_handshake_outbox_published_at", columnList = "publishedAt")
+})
+@NoArgsConstructor
+@Getter
+public class HandshakeOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false)
+    private String handshakeName;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private HandshakeEventType eventType;
+    @Column(nullable = false)
+    private HandshakeStatus handshakeStatus;
+    @Column(nullable = false)
+    private long version;
+    @Column(nullable = false)
+    private String initiatorUsername;
+    @Column(nullable = false)
+    private String receiverUsername;
+    @Column(nullable = false)
+    private Instant occurredAt;
+    @Column
+    private Instant publishedAt;
+}
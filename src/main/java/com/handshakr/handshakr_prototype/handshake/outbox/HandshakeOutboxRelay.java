@@ -0,0 +1,103 @@
+package com.handshakr.handshakr_prototype.handshake.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Relays handshake lifecycle events from the outbox to downstream consumers, off the request path.
+ *
+ * <p>Each batch is claimed, published and stamped in one transaction. Claiming uses {@code SKIP LOCKED}, so
+ * every node runs the relay and they drain disjoint batches in parallel. Every event is published as an
+ * application event to in-process listeners such as notifications, push or analytics. If a listener throws,
+ * the batch is rolled back and relayed again on the next run, so delivery is at least once and listeners
+ * should be idempotent. Batches on different nodes can interleave, so consumers that care about ordering
+ * should compare each handshake's version rather than rely on arrival order.</p>
+ *
+ * <p>Published events are kept for a retention period as a record of each handshake's history, then
+ * purged.</p>
+ */
+@Component
+public class HandshakeOutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(HandshakeOutboxRelay.class);
+    // Bounds one run, so a large backlog does not hold the shared scheduler thread
+    private static final int MAX_BATCHES_PER_RUN = 10;
+
+    private final HandshakeOutboxRepository outbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    public HandshakeOutboxRelay(HandshakeOutboxRepository outbox,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${handshake.outbox.batch-size:100}") int batchSize,
+                                @Value("${handshake.outbox.retention-hours:168}") long retentionHours) {
+        this.outbox = outbox;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    /**
+     * Relays pending events until the outbox is drained or the run's batch limit is reached.
+     *
+     * @return the number of events relayed
+     */
+    @Scheduled(fixedDelayString = "${handshake.outbox.relay-interval-ms:1000}")
+    public int relay() {
+        int relayed = 0;
+        try {
+            for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+                int size = relayBatch();
+                relayed += size;
+                if (size < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to relay handshake outbox events; they will be retried", e);
+        }
+        return relayed;
+    }
+
+    /**
+     * Claims, publishes and stamps one batch of events in a single transaction.
+     *
+     * @return the number of events in the batch
+     */
+    int relayBatch() {
+        Integer size = transactionTemplate.execute(status -> {
+            List<HandshakeOutboxEvent> events = outbox.claimUnpublished(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            events.forEach(eventPublisher::publishEvent);
+            outbox.markPublished(events.stream().map(HandshakeOutboxEvent::getId).toList(), Instant.now());
+            return events.size();
+        });
+        return size == null ? 0 : size;
+    }
+
+    /**
+     * Deletes published events older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${handshake.outbox.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        int purged = outbox.deletePublishedBefore(Instant.now().minus(retention));
+        if (purged > 0) {
+            logger.info("Purged {} published handshake outbox events", purged);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.handshakr.handshakr_prototype.handshake.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the handshake outbox: recording events as handshakes change, and claiming and stamping them
+ * for relay.
+ */
+public interface HandshakeOutboxRepository extends JpaRepository<HandshakeOutboxEvent, Long> {
+
+    /**
+     * Records one event per named handshake in a single statement, snapshotting each handshake's current status,
+     * version and participants. Must run in the transaction that changed the handshakes, after the change.
+     *
+     * @param handshakeNames The unique names of the changed handshakes.
+     * @param eventType      The name of the {@link HandshakeEventType} of the change.
+     * @param occurredAt     The time of the change.
+     * @return The number of events recorded.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            insert into handshake_outbox (handshake_name, event_type, handshake_status, version,
+                                          initiator_username, receiver_username, occurred_at)
+            select handshake_name, :eventType, handshake_status, version,
+                   initiator_username, receiver_username, :occurredAt
+            from handshakes
+            where handshake_name in (:handshakeNames)""")
+    int record(@Param("handshakeNames") Collection<String> handshakeNames,
+               @Param("eventType") String eventType,
+               @Param("occurredAt") Instant occurredAt);
+
+    /**
+     * Locks the oldest unpublished events, skipping any that another relay has already locked, so several
+     * nodes can relay in parallel without waiting on or duplicating each other. The locks are held until the
+     * calling transaction ends.
+     *
+     * @param limit The maximum number of events to claim.
+     * @return The claimed events, oldest first.
+     */
+    @Query(nativeQuery = true, value = """
+            select * from handshake_outbox
+            where published_at is null
+            order by id
+            limit :limit
+            for update skip locked""")
+    List<HandshakeOutboxEvent> claimUnpublished(@Param("limit") int limit);
+
+    /**
+     * Stamps events as published.
+     *
+     * @param ids         The ids of the published events.
+     * @param publishedAt The time they were published.
+     * @return The number of events stamped.
+     */
+    @Modifying
+    @Query("update HandshakeOutboxEvent e set e.publishedAt = :publishedAt where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+    /**
+     * Deletes events published before the given instant.
+     *
+     * @param publishedBefore The instant before which published events are deleted.
+     * @return The number of events deleted.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from HandshakeOutboxEvent e where e.publishedAt < :publishedBefore")
+    int deletePublishedBefore(@Param("publishedBefore") Instant publishedBefore);
+}
@@ -1,14 +1,34 @@
 package com.handshakr.handshakr_prototype.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
 /**
  * A generic API response wrapper used to standardize REST API responses.
  *
  * @param message    a human-readable message describing the result
  * @param httpStatus the HTTP status code to be returned
  * @param data       the payload/data of the response
+ * @param nextCursor the opaque token requesting the next page of a paginated payload;
+ *                   omitted when there are no more pages or the payload is not paginated
  * @param <T>        the type of the data payload
  */
-public record ApiResponse<T>(String message, int httpStatus, T data) {
+public record ApiResponse<T>(String message,
+                             int httpStatus,
+                             T data,
+                             @JsonInclude(JsonInclude.Include.NON_NULL) String nextCursor) {
+
+    /**
+     * Creates a response for a payload that is not paginated.
+     *
+     * @param message    a human-readable message describing the result
+     * @param httpStatus the HTTP status code to be returned
+     * @param data       the payload/data of the response
+     */
+    public ApiResponse(String message, int httpStatus, T data) {
+        this(message, httpStatus, data, null);
+    }
 
     /**
      * Creates a successful {@link ApiResponse} with a message and payload.
@@ -22,6 +42,18 @@ public record ApiResponse<T>(String message, int httpStatus, T data) {
         return new ApiResponse<>(message, 200, data);
     }
 
+    /**
+     * Creates a successful {@link ApiResponse} holding one page of a paginated payload.
+     *
+     * @param message the success message
+     * @param page    the page of results and the cursor for the next page
+     * @param <T>     the type of the page items
+     * @return a populated {@link ApiResponse} with HTTP 200 status
+     */
+    public static <T> ApiResponse<List<T>> success(String message, CursorPage<T> page) {
+        return new ApiResponse<>(message, 200, page.items(), page.nextCursor());
+    }
+
     /**
      * Creates a successful {@link ApiResponse} without any payload.
      *
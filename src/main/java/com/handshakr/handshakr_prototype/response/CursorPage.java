@@ -0,0 +1,17 @@
+package com.handshakr.handshakr_prototype.response;
+
+import java.util.List;
+
+/**
+ * One page of results from a keyset-paginated query.
+ *
+ * @param items      the results on this page, in order
+ * @param nextCursor the opaque token that fetches the page after this one, or null on the last page
+ * @param <T>        the type of the items
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public CursorPage {
+        items = List.copyOf(items);
+    }
+}
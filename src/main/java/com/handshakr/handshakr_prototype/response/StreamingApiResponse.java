@@ -0,0 +1,106 @@
+package com.handshakr.handshakr_prototype.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * A successful {@link ApiResponse} whose {@code data} list is written item by item while it is read, so a
+ * listing of any size is sent in constant memory. The JSON has the same shape as
+ * {@link ApiResponse#success(String, Object)} with a list.
+ *
+ * <p>Nothing is written until the first item arrives or the source finishes, so a source that fails before
+ * producing anything still gets a normal error response. Once the response has started, a failure can only
+ * cut it short.</p>
+ *
+ * @param <T> the type of the listed items
+ */
+public class StreamingApiResponse<T> implements StreamingResponseBody {
+
+    /**
+     * Produces the listed items, passing each one to the given action.
+     *
+     * @param <T> the type of the listed items
+     */
+    @FunctionalInterface
+    public interface Source<T> {
+        void forEach(Consumer<? super T> action);
+    }
+
+    private final ObjectWriter itemWriter;
+    private final String message;
+    private final Source<T> source;
+
+    /**
+     * Creates a streaming response.
+     *
+     * @param objectMapper the application's mapper, so items are written as they would be in an {@link ApiResponse}
+     * @param message      the success message
+     * @param source       produces the items; runs on the thread writing the response
+     */
+    public StreamingApiResponse(ObjectMapper objectMapper, String message, Source<T> source) {
+        // Flushing after every item would send each one in its own packet; the container buffers instead
+        this.itemWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.message = message;
+        this.source = source;
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        Writer writer = new Writer(outputStream);
+        try {
+            source.forEach(writer::write);
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes the envelope around the items, starting it on the first item.
+     */
+    private class Writer {
+        private final OutputStream outputStream;
+        private JsonGenerator json;
+
+        Writer(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        void write(T item) {
+            try {
+                start();
+                itemWriter.writeValue(json, item);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            start();
+            json.writeEndArray();
+            json.writeEndObject();
+            // The container owns the stream and closes it
+            json.flush();
+        }
+
+        private void start() throws IOException {
+            if (json != null) {
+                return;
+            }
+            json = itemWriter.createGenerator(outputStream);
+            json.writeStartObject();
+            json.writeStringField("message", message);
+            json.writeNumberField("httpStatus", 200);
+            json.writeFieldName("data");
+            json.writeStartArray();
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package com.handshakr.handshakr_prototype.security;
 
+import com.handshakr.handshakr_prototype.security.password.BoundedPasswordEncoder;
+import com.handshakr.handshakr_prototype.security.password.PasswordHashing;
 import com.handshakr.handshakr_prototype.user.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
 
 /**
  * Application-level configuration for authentication-related Spring Security beans.
@@ -20,36 +26,93 @@ import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 @Configuration
 public class ApplicationConfiguration {
     private final UserService userService;
+    private final PrincipalCache principalCache;
 
     /**
      * Constructs the ApplicationConfiguration with a provided UserService.
      *
      * @param userService the service used to retrieve user details
+     * @param principalCache the cache placed in front of user lookups
      */
-    public ApplicationConfiguration(UserService userService) {
+    public ApplicationConfiguration(UserService userService, PrincipalCache principalCache) {
         this.userService = userService;
+        this.principalCache = principalCache;
     }
 
     /**
      * Defines the {@link UserDetailsService} bean using the application's UserService.
      *
+     * <p>Lookups go through the {@link PrincipalCache}, so a user is only read from the
+     * database on a cache miss or after it has been saved.</p>
+     *
      * @return the user details service used to load users by username
      */
     @Bean
     UserDetailsService userDetailsService() {
-        return userService::findByUsername;
+        return username -> principalCache.get(username, userService::findByUsername);
     }
 
     /**
      * Defines the {@link PasswordEncoder} bean.
      *
-     * <p>Uses PBKDF2 with Spring Security defaults as of version 5.8.</p>
+     * <p>A {@link PasswordHashing#delegating delegating encoder} whose cost is chosen for this machine: unless
+     * {@code security.password-hashing.encoder-id} pins a step, the configured family's ladder is timed at startup
+     * and its most expensive step within the target latency is used. With
+     * {@code security.password-hashing.compare-algorithms} the other family is timed too, only so its result is
+     * logged for comparison. Hashing runs
+     * on a dedicated {@link BoundedPasswordEncoder} pool so login bursts cannot occupy every request thread;
+     * the pool defaults to one thread per core.</p>
      *
+     * @param meterRegistry the registry for hashing queue and latency metrics
+     * @param algorithm the encoder family for new hashes, {@code pbkdf2} or {@code bcrypt}
+     * @param encoderId a fixed encoder id such as {@code pbkdf2-600000}, or blank to calibrate
+     * @param targetMillis the hashing latency calibration aims for
+     * @param compareAlgorithms whether to also calibrate and log the family not in use
+     * @param threads the number of concurrent hashes, or 0 for one per available processor
+     * @param queueCapacity the number of hashes that may wait for a thread before load is shed
+     * @param maxWaitMillis how long a request waits for its hash before load is shed
+     * @param retryAfterSeconds the {@code Retry-After} hint sent when load is shed
      * @return the password encoder
      */
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+    PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                    @Value("${security.password-hashing.algorithm:pbkdf2}") String algorithm,
+                                    @Value("${security.password-hashing.encoder-id:}") String encoderId,
+                                    @Value("${security.password-hashing.target-ms:250}") long targetMillis,
+                                    @Value("${security.password-hashing.compare-algorithms:false}") boolean compareAlgorithms,
+                                    @Value("${security.password-hashing.threads:0}") int threads,
+                                    @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                    @Value("${security.password-hashing.max-wait-ms:2000}") long maxWaitMillis,
+                                    @Value("${security.password-hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        if (encoderId.isBlank()) {
+            Duration target = Duration.ofMillis(targetMillis);
+            encoderId = PasswordHashing.calibrate(algorithm, target).encoderId();
+            if (compareAlgorithms) {
+                // Only for its log line, which shows the alternative's cost on this machine; the result is unused
+                PasswordHashing.calibrate(PasswordHashing.PBKDF2.equals(algorithm)
+                        ? PasswordHashing.BCRYPT : PasswordHashing.PBKDF2, target);
+            }
+        }
+
+        return new BoundedPasswordEncoder(
+                PasswordHashing.delegating(encoderId),
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queueCapacity,
+                Duration.ofMillis(maxWaitMillis),
+                retryAfterSeconds,
+                meterRegistry);
+    }
+
+    /**
+     * Defines how re-hashed passwords are persisted.
+     *
+     * <p>Called after a successful login whose stored hash was made with different parameters than the
+     * current encoder; the fresh hash replaces it so the user moves to the current cost.</p>
+     *
+     * @return the password update service
+     */
+    UserDetailsPasswordService userDetailsPasswordService() {
+        return (user, encodedPassword) -> userService.updatePassword(user.getUsername(), encodedPassword);
     }
 
     /**
@@ -68,15 +131,17 @@ public class ApplicationConfiguration {
      * Defines the {@link AuthenticationProvider} bean.
      *
      * <p>Uses {@link DaoAuthenticationProvider} configured with the user details service
-     * and password encoder defined above.</p>
+     * and password encoder defined above, re-hashing outdated passwords on successful login.</p>
      *
+     * @param passwordEncoder the password encoder
      * @return the authentication provider
      */
     @Bean
-    AuthenticationProvider authenticationProvider() {
+    AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
         return authProvider;
     }
 }
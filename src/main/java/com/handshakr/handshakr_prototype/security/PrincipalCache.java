@@ -0,0 +1,86 @@
+package com.handshakr.handshakr_prototype.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.handshakr.handshakr_prototype.user.UserUpdatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * In-process cache of authenticated principals, keyed by username.
+ *
+ * <p>Sits in front of the {@link org.springframework.security.core.userdetails.UserDetailsService}
+ * so that {@code JwtAuthenticationFilter} does not query the database on every request. Entries
+ * are bounded in number, expire after a fixed TTL, and are evicted as soon as the user is saved
+ * (see {@link UserUpdatedEvent}).</p>
+ *
+ * <p>Hit, miss and eviction counts are published as {@code cache.*} meters tagged {@code cache=principals}.</p>
+ */
+@Component
+public class PrincipalCache {
+    static final String CACHE_NAME = "principals";
+
+    private final Cache<String, UserDetails> principals;
+    private final Counter invalidations;
+
+    public PrincipalCache(
+            @Value("${security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+            MeterRegistry meterRegistry) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.invalidations = Counter.builder("cache.invalidations")
+                .description("Principals evicted because the user was saved")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached principal for a username, loading and caching it on a miss.
+     *
+     * @param username the username to look up
+     * @param loader   loads the principal when it is not cached; exceptions are propagated and nothing is cached
+     * @return the principal
+     */
+    public UserDetails get(String username, Function<String, ? extends UserDetails> loader) {
+        return principals.get(username, loader);
+    }
+
+    /**
+     * Evicts the principal for a username, if cached.
+     *
+     * @param username the username to evict
+     */
+    public void invalidate(String username) {
+        if (username != null && principals.asMap().remove(username) != null) {
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Returns a snapshot of hit, miss and eviction statistics.
+     *
+     * @return the cache statistics
+     */
+    public CacheStats stats() {
+        return principals.stats();
+    }
+
+    @EventListener
+    void onUserUpdated(UserUpdatedEvent event) {
+        invalidate(event.user().getUsername());
+    }
+}
@@ -6,6 +6,8 @@ import static com.handshakr.handshakr_prototype.Constants.*;
 import com.handshakr.handshakr_prototype.security.filter.CsrfCookieResponseFilter;
 import com.handshakr.handshakr_prototype.security.filter.JwtAuthenticationFilter;
 import com.handshakr.handshakr_prototype.security.filter.RequestLoggingFilter;
+import com.handshakr.handshakr_prototype.security.revocation.TokenRevocationService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
@@ -35,10 +37,14 @@ import java.util.List;
 public class SecurityConfiguration {
     private final AuthenticationProvider authProvider;
     private final JwtAuthenticationFilter jwtFilter;
+    private final TokenRevocationService tokenRevocationService;
 
-    public SecurityConfiguration(AuthenticationProvider authProvider, JwtAuthenticationFilter jwtFilter) {
+    public SecurityConfiguration(AuthenticationProvider authProvider,
+                                 JwtAuthenticationFilter jwtFilter,
+                                 TokenRevocationService tokenRevocationService) {
         this.authProvider = authProvider;
         this.jwtFilter = jwtFilter;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     /**
@@ -59,7 +65,9 @@ public class SecurityConfiguration {
 
                 // Authorization
                 .authorizeHttpRequests(requests -> requests
-                        .requestMatchers("/auth/register", "/auth/login", "/auth/logout", "/debug/**", "/jenkins").permitAll()
+                        // Dispatches resuming an already authorized async request, such as an event stream
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/auth/register", "/auth/login", "/auth/logout", "/auth/username-available", "/debug/**", "/jenkins", "/.well-known/jwks.json").permitAll()
                         .anyRequest().authenticated())
 
                 // Stateless session
@@ -119,11 +127,13 @@ public class SecurityConfiguration {
 
     /**
      * Defines the behavior when a logout is successful.
-     * Clears both JWT and CSRF cookies.
+     * Revokes the presented JWT so it cannot be replayed, then clears both JWT and CSRF cookies.
      */
     @Bean
     public LogoutSuccessHandler logoutSuccessHandler() {
         return (request, response, authentication) -> {
+            JwtAuthenticationFilter.extractToken(request).ifPresent(tokenRevocationService::revoke);
+
             ResponseCookie clearJwt = ResponseCookie.from(JWT_COOKIE_NAME, "")
                     .httpOnly(true).secure(true).path("/").sameSite("None").maxAge(0).build();
 
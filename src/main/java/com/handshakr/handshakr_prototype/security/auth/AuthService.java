@@ -34,5 +34,25 @@ public interface AuthService {
      * @throws org.springframework.security.authentication.LockedException
      *         if the user account is locked
      */
-    UserDetails authenticate(LoginRequest request);
+    default UserDetails authenticate(LoginRequest request) {
+        return authenticate(request, null);
+    }
+
+    /**
+     * Authenticates a user using their login credentials, throttling repeated failures
+     * per username and client address before any password is checked.
+     *
+     * @param request the login request containing username and password
+     * @param clientAddress the address the request came from, or null if unknown
+     * @return the authenticated {@link UserDetails}
+     * @throws com.handshakr.handshakr_prototype.exceptions.security.TooManyAttemptsException
+     *         if too many recent logins for the username or address have failed
+     * @throws org.springframework.security.authentication.BadCredentialsException
+     *         if the provided credentials are incorrect
+     * @throws org.springframework.security.authentication.DisabledException
+     *         if the user account is disabled
+     * @throws org.springframework.security.authentication.LockedException
+     *         if the user account is locked, including after too many failures
+     */
+    UserDetails authenticate(LoginRequest request, String clientAddress);
 }
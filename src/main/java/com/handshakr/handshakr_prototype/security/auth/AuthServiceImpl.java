@@ -1,18 +1,20 @@
 package com.handshakr.handshakr_prototype.security.auth;
 
 import com.handshakr.handshakr_prototype.exceptions.UserExceptionFactory;
-import com.handshakr.handshakr_prototype.exceptions.user.UserExceptionType;
+import com.handshakr.handshakr_prototype.exceptions.user.UserNotFoundException;
 import com.handshakr.handshakr_prototype.user.UserService;
 import com.handshakr.handshakr_prototype.user.dto.LoginRequest;
 import com.handshakr.handshakr_prototype.user.dto.RegisterRequest;
 import com.handshakr.handshakr_prototype.user.User;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+
 /**
  * Implementation of the {@link AuthService} interface that handles user
  * registration and authentication using Spring Security components.
@@ -23,6 +25,7 @@ public class AuthServiceImpl implements AuthService{
     private final PasswordEncoder encoder;
     private final AuthenticationManager manager;
     private final UserExceptionFactory userExceptionFactory;
+    private final LoginAttemptThrottle loginAttemptThrottle;
 
     /**
      * Constructs a new {@code AuthServiceImpl}.
@@ -31,12 +34,15 @@ public class AuthServiceImpl implements AuthService{
      * @param encoder the password encoder for securing passwords
      * @param manager the authentication manager for verifying credentials
      * @param userExceptionFactory the factory for creating user-related exceptions
+     * @param loginAttemptThrottle the tracker of failed logins
      */
-    public AuthServiceImpl(UserService userService, PasswordEncoder encoder, AuthenticationManager manager, UserExceptionFactory userExceptionFactory) {
+    public AuthServiceImpl(UserService userService, PasswordEncoder encoder, AuthenticationManager manager,
+                           UserExceptionFactory userExceptionFactory, LoginAttemptThrottle loginAttemptThrottle) {
         this.userService = userService;
         this.encoder = encoder;
         this.manager = manager;
         this.userExceptionFactory = userExceptionFactory;
+        this.loginAttemptThrottle = loginAttemptThrottle;
     }
 
     /**
@@ -44,52 +50,43 @@ public class AuthServiceImpl implements AuthService{
      */
     @Override
     public User register(RegisterRequest request) {
-        // Check if username already exists
-        if (userService.usernameExists(request.username())) {
-            throw userExceptionFactory.create(
-                    UserExceptionType.USER_ALREADY_EXISTS,
-                    request.username());
-        }
-
-        // Check if email already exists
-        if (userService.emailExists(request.email())) {
-            throw userExceptionFactory.create(
-                    UserExceptionType.USER_ALREADY_EXISTS,
-                    request.email());
-        }
-
         // Validate password strength
         if (request.password().length() < 8) {
             throw userExceptionFactory.badRequest(
                     "Password must be at least 8 characters long");
         }
 
-        try {
-            return userService.saveUser(
-                    new User(
-                            request.username(),
-                            request.email(),
-                            encoder.encode(request.password())
-                    ));
-        } catch (DataIntegrityViolationException e) {
-            throw userExceptionFactory.badRequest(
-                    "Failed to register user: " + e.getRootCause().getMessage());
-        }
+        // A single insert; duplicate usernames and emails are rejected by their unique constraints
+        return userService.saveUser(
+                new User(
+                        request.username(),
+                        request.email(),
+                        encoder.encode(request.password())
+                ));
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public UserDetails authenticate(LoginRequest request) {
+    public UserDetails authenticate(LoginRequest request, String clientAddress) {
+        // Refuse throttled logins before the password encoder runs. Refusals are not failures: counting them
+        // would let anyone lock an account without ever guessing its password
+        Duration retryAfter = loginAttemptThrottle.retryAfter(request.username(), clientAddress);
+        if (retryAfter.isPositive()) {
+            throw userExceptionFactory.tooManyAttempts(Math.max(1, retryAfter.toSeconds()));
+        }
+
         try {
             Authentication authentication = manager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             request.username(),
                             request.password()
                     ));
+            loginAttemptThrottle.recordSuccess(request.username());
             return (UserDetails) authentication.getPrincipal();
         } catch (BadCredentialsException e) {
+            recordFailure(request.username(), clientAddress);
             throw new BadCredentialsException("Invalid credentials");
         } catch (DisabledException e) {
             throw new DisabledException("Account is disabled");
@@ -97,4 +94,20 @@ public class AuthServiceImpl implements AuthService{
             throw new LockedException("Account is locked");
         }
     }
+
+    private void recordFailure(String username, String clientAddress) {
+        if (loginAttemptThrottle.recordFailure(username, clientAddress)) {
+            lockAccount(username);
+        }
+    }
+
+    private void lockAccount(String username) {
+        try {
+            User user = userService.findByUsername(username);
+            user.setLockedUntil(Instant.now().plus(loginAttemptThrottle.lockDuration()));
+            userService.saveUser(user);
+        } catch (UserNotFoundException e) {
+            // Unknown usernames are throttled but have no account to lock
+        }
+    }
 }
@@ -0,0 +1,241 @@
+package com.handshakr.handshakr_prototype.security.auth;
+
+import com.handshakr.handshakr_prototype.Constants;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.*;
+import java.security.cert.Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the keys used to sign and verify JWTs.
+ *
+ * <p>With the default {@code HS256} algorithm tokens are signed with the shared secret from
+ * {@code jwt.secret-key} and carry no {@code kid}, exactly as before. With {@code ES256} or {@code EdDSA}
+ * (Ed25519) tokens are signed with a private key and carry its {@code kid}; any number of public keys can be
+ * valid at once, and each is parsed once and kept in a map indexed by kid. Public keys are published by
+ * {@link #publicJwks()} so other services can verify tokens without the signing secret.</p>
+ *
+ * <p>Asymmetric keys are loaded from the PKCS12 keystore at {@code jwt.keystore.location}, where each
+ * private-key alias is a kid and {@code jwt.keystore.signing-alias} selects the one that signs. Without a
+ * keystore a key pair is generated at startup, which only suits a single node. {@link #rotate()} switches
+ * signing to a fresh key and keeps the previous public key until every token it signed has expired.</p>
+ *
+ * <p>When {@code jwt.secret-key} is set alongside an asymmetric algorithm it still verifies tokens without a
+ * kid, so tokens issued before switching algorithms stay valid until they expire.</p>
+ */
+@Component
+public class JwtKeyRing {
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    /**
+     * Supported signing algorithms.
+     */
+    public enum Algorithm { HS256, ES256, EdDSA }
+
+    private final Algorithm algorithm;
+    private final Map<String, Key> verificationKeys = new ConcurrentHashMap<>();
+    private final Map<String, Instant> retiring = new ConcurrentHashMap<>();
+    private volatile SecretKey secretKey;
+    private volatile String signingKeyId;
+    private volatile Key signingKey;
+    private volatile Map<String, Object> jwks = Map.of("keys", List.of());
+
+    /**
+     * Creates a key ring from configuration.
+     */
+    @Autowired
+    public JwtKeyRing(@Value("${jwt.signing-algorithm:HS256}") Algorithm algorithm,
+                      @Value("${jwt.secret-key:}") String secretKey,
+                      @Value("${jwt.keystore.location:}") String keystoreLocation,
+                      @Value("${jwt.keystore.password:}") String keystorePassword,
+                      @Value("${jwt.keystore.signing-alias:}") String signingAlias) {
+        this.algorithm = algorithm;
+        if (!secretKey.isBlank()) {
+            useSecret(secretKey);
+        }
+        if (algorithm != Algorithm.HS256) {
+            if (keystoreLocation.isBlank()) {
+                logger.warn("No jwt.keystore.location configured; generated an ephemeral {} signing key", algorithm);
+                rotate();
+            } else {
+                loadKeystore(keystoreLocation, keystorePassword.toCharArray(), signingAlias);
+            }
+        }
+    }
+
+    /**
+     * Creates a key ring for the given algorithm with no configured keys. An asymmetric key ring starts with a
+     * generated key pair; an HS256 key ring needs {@link #useSecret(String)} before it can sign.
+     *
+     * @param algorithm the signing algorithm
+     */
+    public JwtKeyRing(Algorithm algorithm) {
+        this(algorithm, "", "", "", "");
+    }
+
+    /**
+     * Sets the base64-encoded HMAC secret. It signs tokens under HS256 and verifies tokens without a kid.
+     *
+     * @param base64Secret the base64-encoded secret
+     */
+    public void useSecret(String base64Secret) {
+        this.secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
+    }
+
+    /**
+     * Returns the algorithm new tokens are signed with.
+     *
+     * @return the signing algorithm
+     */
+    public Algorithm algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Returns the kid to put in the header of new tokens.
+     *
+     * @return the signing key id, or null when signing with the HMAC secret
+     */
+    public String signingKeyId() {
+        return algorithm == Algorithm.HS256 ? null : signingKeyId;
+    }
+
+    /**
+     * Returns the key new tokens are signed with.
+     *
+     * @return the private key, or the HMAC secret under HS256
+     * @throws IllegalStateException if no signing key is configured
+     */
+    public Key signingKey() {
+        Key key = algorithm == Algorithm.HS256 ? secretKey : signingKey;
+        if (key == null) {
+            throw new IllegalStateException("No JWT signing key configured for " + algorithm);
+        }
+        return key;
+    }
+
+    /**
+     * Resolves the key that verifies a token from its header. Used as the parser's key locator.
+     *
+     * @param header the token header
+     * @return the verification key for the header's kid, or the HMAC secret when there is no kid
+     * @throws JwtException if the kid is unknown or no key applies
+     */
+    public Key locate(Header header) {
+        String kid = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        Key key = kid == null ? secretKey : verificationKeys.get(kid);
+        if (key == null) {
+            throw new JwtException("No verification key for kid " + kid);
+        }
+        return key;
+    }
+
+    /**
+     * Generates a new signing key and makes it current. The previous key keeps verifying tokens until
+     * the longest-lived token it could have signed has expired.
+     *
+     * @return the kid of the new key
+     * @throws IllegalStateException under HS256, where the shared secret is rotated through configuration
+     */
+    public synchronized String rotate() {
+        KeyPair keyPair = switch (algorithm) {
+            case ES256 -> Jwts.SIG.ES256.keyPair().build();
+            case EdDSA -> Jwks.CRV.Ed25519.keyPair().build();
+            case HS256 -> throw new IllegalStateException("HS256 secrets are rotated by changing jwt.secret-key");
+        };
+        String kid = UUID.randomUUID().toString();
+        addSigningKey(kid, keyPair.getPrivate(), keyPair.getPublic());
+        return kid;
+    }
+
+    /**
+     * Returns the public verification keys as a JSON Web Key Set.
+     *
+     * @return a map with a single {@code keys} entry listing every public key
+     */
+    public Map<String, Object> publicJwks() {
+        return jwks;
+    }
+
+    /**
+     * Removes public keys whose tokens have all expired since they stopped signing.
+     */
+    @Scheduled(fixedDelayString = "${jwt.key-retirement-interval-ms:3600000}")
+    public void retireExpiredKeys() {
+        Instant now = Instant.now();
+        retiring.entrySet().removeIf(entry -> {
+            if (entry.getValue().isAfter(now)) {
+                return false;
+            }
+            verificationKeys.remove(entry.getKey());
+            return true;
+        });
+        publishJwks();
+    }
+
+    private synchronized void addSigningKey(String kid, PrivateKey privateKey, PublicKey publicKey) {
+        verificationKeys.put(kid, publicKey);
+        if (signingKeyId != null) {
+            retiring.put(signingKeyId, Instant.now().plus(Duration.ofMillis(Constants.JWT_EXPIRATION)));
+        }
+        signingKeyId = kid;
+        signingKey = privateKey;
+        publishJwks();
+    }
+
+    private void loadKeystore(String location, char[] password, String signingAlias) {
+        try (InputStream in = new DefaultResourceLoader().getResource(location).getInputStream()) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, password);
+
+            String signer = null;
+            for (String alias : Collections.list(keyStore.aliases())) {
+                Certificate certificate = keyStore.getCertificate(alias);
+                if (keyStore.isKeyEntry(alias) && certificate != null) {
+                    verificationKeys.put(alias, certificate.getPublicKey());
+                    if (signer == null || alias.equals(signingAlias)) {
+                        signer = alias;
+                    }
+                }
+            }
+            if (signer == null) {
+                throw new IllegalStateException("JWT keystore " + location + " contains no key pairs");
+            }
+            signingKeyId = signer;
+            signingKey = keyStore.getKey(signer, password);
+            publishJwks();
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Could not load JWT keystore " + location, e);
+        }
+    }
+
+    private void publishJwks() {
+        List<Map<String, ?>> keys = new ArrayList<>();
+        verificationKeys.forEach((kid, key) -> {
+            if (key instanceof PublicKey publicKey) {
+                keys.add(Jwks.builder().key(publicKey).id(kid).publicKeyUse("sig").build());
+            }
+        });
+        jwks = Map.of("keys", List.copyOf(keys));
+    }
+}
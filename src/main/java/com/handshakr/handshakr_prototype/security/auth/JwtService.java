@@ -3,6 +3,7 @@ package com.handshakr.handshakr_prototype.security.auth;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Service interface for handling JWT (JSON Web Token) creation, validation, and parsing.
@@ -49,4 +50,15 @@ public interface JwtService {
      */
     boolean isTokenValid(String token, UserDetails details);
 
+    /**
+     * Verifies the token's signature and expiry once and returns its claims.
+     *
+     * <p>Verified tokens are cached by digest until they expire, so repeat
+     * requests carrying the same token skip signature verification.</p>
+     *
+     * @param token the JWT token
+     * @return the verified claims, or empty if the token is malformed, forged or expired
+     */
+    Optional<TokenClaims> validateToken(String token);
+
 }
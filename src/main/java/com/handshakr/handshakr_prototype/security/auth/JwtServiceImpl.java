@@ -1,35 +1,70 @@
 package com.handshakr.handshakr_prototype.security.auth;
 
 import com.handshakr.handshakr_prototype.Constants;
-import io.jsonwebtoken.Claims;
+import com.handshakr.handshakr_prototype.user.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
-import java.util.function.Function;
 
 /**
  * Implementation of {@link JwtService} that provides functionality for generating and validating JWT tokens.
+ *
+ * <p>Tokens issued for a {@link User} embed a snapshot of the user (id, enabled and locked flags,
+ * security version) so that requests can be authenticated from the token alone.</p>
+ *
+ * <p>Each token is parsed and signature-checked at most once: the verified claims are kept in a bounded
+ * cache keyed by the token's SHA-256 digest, and each entry expires together with its token.</p>
+ *
+ * <p>Signing and verification keys come from {@link JwtKeyRing}; the verifying key is chosen by the
+ * token's {@code kid} header.</p>
  */
 @Service
 public class JwtServiceImpl implements JwtService{
-    @Value("${jwt.secret-key}")
-    private String secretKey;
     private final long jwtExpiration = Constants.JWT_EXPIRATION;
 
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
+    private final Cache<String, TokenClaims> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(Constants.JWT_VALIDATION_CACHE_SIZE)
+            .expireAfter(new ExpireWithToken())
+            .build();
+
+    @Autowired
+    public JwtServiceImpl(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parser()
+                .keyLocator(keyRing::locate)
+                .build();
+    }
+
+    /**
+     * Creates a service signing with HS256; the secret must be set with {@link #setSecretKey(String)}.
+     */
+    public JwtServiceImpl() {
+        this(new JwtKeyRing(JwtKeyRing.Algorithm.HS256));
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verifiedClaims(token).subject();
     }
 
     /**
@@ -61,8 +96,24 @@ public class JwtServiceImpl implements JwtService{
      */
     @Override
     public boolean isTokenValid(String token, UserDetails details) {
-        String username = extractUsername(token);
-        return (Objects.equals(username, details.getUsername())) && !isTokenExpired(token);
+        return validateToken(token)
+                .map(claims -> Objects.equals(claims.subject(), details.getUsername()))
+                .orElse(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<TokenClaims> validateToken(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(verifiedClaims(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
     private String buildToken(
@@ -71,16 +122,32 @@ public class JwtServiceImpl implements JwtService{
             long expiration
     ) {
         return Jwts.builder()
+                .header()
+                .keyId(keyRing.signingKeyId())
+                .and()
                 .claims()
                 .add(extraClaims)
+                .add(userSnapshot(userDetails))
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
                 .and()
-                .signWith(getSignInKey())
+                .signWith(keyRing.signingKey())
                 .compact();
     }
 
+    private Map<String, Object> userSnapshot(UserDetails userDetails) {
+        if (!(userDetails instanceof User user) || user.getId() == null) {
+            return Map.of();
+        }
+        return Map.of(
+                TokenClaims.USER_ID, user.getId(),
+                TokenClaims.ENABLED, user.isEnabled(),
+                TokenClaims.LOCKED, !user.isAccountNonLocked(),
+                TokenClaims.SECURITY_VERSION, user.getSecurityVersion());
+    }
+
     private String generateBase64Key() {
         try {
             KeyGenerator keyGenerator = KeyGenerator.getInstance("HmacSHA256");
@@ -94,32 +161,56 @@ public class JwtServiceImpl implements JwtService{
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
+    /**
+     * Returns the claims of a token, verifying its signature only on a cache miss.
+     *
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    private TokenClaims verifiedClaims(String token) {
+        String digest = digest(token);
+        TokenClaims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpiredAt(Instant.now())) {
+            return cached;
+        }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        TokenClaims claims = TokenClaims.from(parser.parseSignedClaims(token).getPayload());
+        if (claims.expiration() != null) {
+            verifiedTokens.put(digest, claims);
+        }
+        return claims;
     }
 
-    private Date extractExpiration(String token) {return extractClaim(token, Claims::getExpiration);}
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 
+    /**
+     * Expires each cached entry at the {@code exp} of the token it was verified from.
+     */
+    private static final class ExpireWithToken implements Expiry<String, TokenClaims> {
+        @Override
+        public long expireAfterCreate(String digest, TokenClaims claims, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), claims.expiration()).toNanos());
+        }
 
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
+        @Override
+        public long expireAfterUpdate(String digest, TokenClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, claims, currentTime);
+        }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        @Override
+        public long expireAfterRead(String digest, TokenClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 
     public void setSecretKey(String key) {
-        this.secretKey = key;
+        keyRing.useSecret(key);
+        this.verifiedTokens.invalidateAll();
     }
 }
@@ -0,0 +1,168 @@
+package com.handshakr.handshakr_prototype.security.auth;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tracks failed logins per username and per client address so repeated failures can be refused
+ * before any password hashing happens.
+ *
+ * <p>Each key holds a failure score that decays exponentially with the configured half-life, which acts as
+ * a sliding window without storing individual attempts. Scores are updated with compare-and-set on a
+ * per-key reference in a {@link ConcurrentHashMap}, so concurrent logins never block each other.</p>
+ *
+ * <p>A login is refused while one more failure would push the username's score over
+ * {@code security.login-throttle.user-threshold} or the address's over {@code ip-threshold}.
+ * Failures also add to a second, slower-decaying score per username, with half-life
+ * {@code lock-half-life-seconds}, which catches guessing paced to stay under the throttle.
+ * {@link #recordFailure} reports when it reaches {@code lock-threshold}, at which point the caller should
+ * lock the account for {@link #lockDuration()}. That score then starts again from zero.</p>
+ */
+@Component
+public class LoginAttemptThrottle {
+    private static final double FORGOTTEN_SCORE = 0.1;
+
+    private final int userThreshold;
+    private final int ipThreshold;
+    private final int lockThreshold;
+    private final double halfLifeNanos;
+    private final double lockHalfLifeNanos;
+    private final Duration lockDuration;
+    private final ConcurrentMap<String, AtomicReference<Score>> scores = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicReference<Score>> lockScores = new ConcurrentHashMap<>();
+
+    public LoginAttemptThrottle(@Value("${security.login-throttle.user-threshold:5}") int userThreshold,
+                                @Value("${security.login-throttle.ip-threshold:50}") int ipThreshold,
+                                @Value("${security.login-throttle.lock-threshold:25}") int lockThreshold,
+                                @Value("${security.login-throttle.half-life-seconds:900}") long halfLifeSeconds,
+                                @Value("${security.login-throttle.lock-half-life-seconds:86400}") long lockHalfLifeSeconds,
+                                @Value("${security.login-throttle.lock-duration-seconds:3600}") long lockDurationSeconds) {
+        if (userThreshold < 2 || ipThreshold < 2) {
+            throw new IllegalArgumentException("Login throttle thresholds must be at least 2");
+        }
+        this.userThreshold = userThreshold;
+        this.ipThreshold = ipThreshold;
+        this.lockThreshold = lockThreshold;
+        this.halfLifeNanos = Duration.ofSeconds(halfLifeSeconds).toNanos();
+        this.lockHalfLifeNanos = Duration.ofSeconds(lockHalfLifeSeconds).toNanos();
+        this.lockDuration = Duration.ofSeconds(lockDurationSeconds);
+    }
+
+    /**
+     * Returns how long a login for this username and address must wait.
+     *
+     * @param username      the username being logged into
+     * @param clientAddress the client's address, or null if unknown
+     * @return zero if the attempt may proceed, otherwise the time until it would be allowed
+     */
+    public Duration retryAfter(String username, String clientAddress) {
+        long now = System.nanoTime();
+        double wait = Math.max(
+                nanosUntilAllowed(score(userKey(username), now), userThreshold),
+                nanosUntilAllowed(score(ipKey(clientAddress), now), ipThreshold));
+        return Duration.ofNanos((long) Math.ceil(wait));
+    }
+
+    /**
+     * Records a login whose password was checked and found wrong. Logins refused by {@link #retryAfter} must not
+     * be recorded, or anyone could lock any account just by sending refused logins for it.
+     *
+     * @param username      the username being logged into
+     * @param clientAddress the client's address, or null if unknown
+     * @return true if the account should now be locked
+     */
+    public boolean recordFailure(String username, String clientAddress) {
+        long now = System.nanoTime();
+        add(scores, ipKey(clientAddress), now, halfLifeNanos, Double.MAX_VALUE);
+        add(scores, userKey(username), now, halfLifeNanos, Double.MAX_VALUE);
+        return add(lockScores, userKey(username), now, lockHalfLifeNanos, lockThreshold) >= lockThreshold;
+    }
+
+    /**
+     * Clears the failure scores of a username after a successful login.
+     *
+     * @param username the username that logged in
+     */
+    public void recordSuccess(String username) {
+        String key = userKey(username);
+        if (key != null) {
+            scores.remove(key);
+            lockScores.remove(key);
+        }
+    }
+
+    /**
+     * Returns how long an account stays locked once {@link #recordFailure} reports it should be.
+     *
+     * @return the lock duration
+     */
+    public Duration lockDuration() {
+        return lockDuration;
+    }
+
+    /**
+     * Forgets keys whose score has decayed to almost nothing, bounding memory to recently active keys.
+     */
+    @Scheduled(fixedDelayString = "${security.login-throttle.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        scores.values().removeIf(ref -> ref.get().decayedTo(now, halfLifeNanos) < FORGOTTEN_SCORE);
+        lockScores.values().removeIf(ref -> ref.get().decayedTo(now, lockHalfLifeNanos) < FORGOTTEN_SCORE);
+    }
+
+    /**
+     * Adds one failure to a key's score, starting the score again from zero if it reaches {@code reset}.
+     *
+     * @return the score including this failure, before any reset
+     */
+    private double add(ConcurrentMap<String, AtomicReference<Score>> scores, String key, long now,
+                       double halfLifeNanos, double reset) {
+        if (key == null) {
+            return 0;
+        }
+        AtomicReference<Score> ref = scores.computeIfAbsent(key, k -> new AtomicReference<>(new Score(0, now)));
+        Score before;
+        double value;
+        do {
+            before = ref.get();
+            value = before.decayedTo(now, halfLifeNanos) + 1;
+        } while (!ref.compareAndSet(before, new Score(value >= reset ? 0 : value, now)));
+        return value;
+    }
+
+    private double score(String key, long now) {
+        AtomicReference<Score> ref = key == null ? null : scores.get(key);
+        return ref == null ? 0 : ref.get().decayedTo(now, halfLifeNanos);
+    }
+
+    /**
+     * Time until the score has decayed enough that one more failure stays within the threshold.
+     */
+    private double nanosUntilAllowed(double score, int threshold) {
+        double allowed = threshold - 1;
+        return score <= allowed ? 0 : halfLifeNanos * (Math.log(score / allowed) / Math.log(2));
+    }
+
+    private static String userKey(String username) {
+        return username == null || username.isBlank() ? null : "user:" + username;
+    }
+
+    private static String ipKey(String clientAddress) {
+        return clientAddress == null || clientAddress.isBlank() ? null : "ip:" + clientAddress;
+    }
+
+    /**
+     * A failure score as of a point in time.
+     */
+    private record Score(double value, long atNanos) {
+        double decayedTo(long now, double halfLifeNanos) {
+            return value * Math.pow(0.5, Math.max(0, now - atNanos) / halfLifeNanos);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.handshakr.handshakr_prototype.security.auth;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Immutable view of the claims carried by a JWT whose signature and expiry have already been verified.
+ *
+ * @param subject    the username the token was issued to
+ * @param issuedAt   when the token was issued
+ * @param expiration when the token stops being valid
+ * @param claims     every claim in the token, including the registered ones above
+ */
+public record TokenClaims(String subject, Instant issuedAt, Instant expiration, Map<String, Object> claims) {
+    /** Claim holding the user's database id. */
+    public static final String USER_ID = "uid";
+    /** Claim holding the user's enabled flag. */
+    public static final String ENABLED = "enabled";
+    /** Claim holding whether the user's account is locked. */
+    public static final String LOCKED = "locked";
+    /** Claim holding the user's security version when the token was issued. */
+    public static final String SECURITY_VERSION = "ver";
+
+    public TokenClaims {
+        claims = Map.copyOf(claims);
+    }
+
+    /**
+     * Creates a claims view from a parsed JJWT payload.
+     *
+     * @param claims the verified payload
+     * @return the immutable claims view
+     */
+    public static TokenClaims from(Claims claims) {
+        return new TokenClaims(
+                claims.getSubject(),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()),
+                claims);
+    }
+
+    /**
+     * Returns a single claim converted to the requested type.
+     *
+     * @param name the claim name
+     * @param type the expected type of the claim value
+     * @param <T>  the type of the claim value
+     * @return the claim value, or null if the claim is absent
+     */
+    public <T> T get(String name, Class<T> type) {
+        return type.cast(claims.get(name));
+    }
+
+    /**
+     * Returns a numeric claim as a {@code Long}, whatever integer type the JSON parser produced.
+     *
+     * @param name the claim name
+     * @return the claim value, or null if the claim is absent or not a number
+     */
+    public Long getLong(String name) {
+        return claims.get(name) instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * Returns the token's unique id ({@code jti}), used to revoke individual tokens.
+     *
+     * @return the token id, or null for tokens issued without one
+     */
+    public String tokenId() {
+        return get(Claims.ID, String.class);
+    }
+
+    /**
+     * Checks whether the token has expired at the given instant.
+     *
+     * @param now the instant to check against
+     * @return true if the token has an expiration at or before {@code now}
+     */
+    public boolean isExpiredAt(Instant now) {
+        return expiration != null && !expiration.isAfter(now);
+    }
+
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
+    }
+}
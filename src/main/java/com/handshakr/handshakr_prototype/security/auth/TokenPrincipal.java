@@ -0,0 +1,71 @@
+package com.handshakr.handshakr_prototype.security.auth;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A principal built entirely from the user snapshot embedded in a verified JWT.
+ *
+ * <p>Used in stateless authentication mode, where requests are authenticated without
+ * loading the user from the database. It carries no password or profile data.</p>
+ *
+ * @param id               the user's database id
+ * @param username         the user's username
+ * @param enabled          whether the account was enabled when the token was issued
+ * @param accountNonLocked whether the account was unlocked when the token was issued
+ * @param securityVersion  the user's security version when the token was issued
+ */
+public record TokenPrincipal(
+        Long id,
+        String username,
+        boolean enabled,
+        boolean accountNonLocked,
+        long securityVersion) implements UserDetails {
+
+    /**
+     * Builds a principal from verified claims.
+     *
+     * @param claims the verified token claims
+     * @return the principal, or empty if the token does not carry a user snapshot
+     */
+    public static Optional<TokenPrincipal> from(TokenClaims claims) {
+        Long id = claims.getLong(TokenClaims.USER_ID);
+        Long version = claims.getLong(TokenClaims.SECURITY_VERSION);
+        Boolean enabled = claims.get(TokenClaims.ENABLED, Boolean.class);
+        Boolean locked = claims.get(TokenClaims.LOCKED, Boolean.class);
+
+        if (id == null || version == null || enabled == null || locked == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new TokenPrincipal(id, claims.subject(), enabled, !locked, version));
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of();
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return accountNonLocked;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -0,0 +1,63 @@
+package com.handshakr.handshakr_prototype.security.auth;
+
+import com.handshakr.handshakr_prototype.user.User;
+import com.handshakr.handshakr_prototype.user.UserService;
+import com.handshakr.handshakr_prototype.user.UserUpdatedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of user id to current security version, used to reject stale tokens
+ * in stateless authentication mode without a database lookup.
+ *
+ * <p>Only users whose lock or enabled flag has changed are tracked, so the table stays small.
+ * It is seeded once at startup and refreshed whenever a user is saved on this node.</p>
+ */
+@Component
+public class UserVersionTable {
+    private final UserService userService;
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    public UserVersionTable(UserService userService) {
+        this.userService = userService;
+    }
+
+    /**
+     * Checks whether a token issued at the given security version still reflects the user's state.
+     *
+     * @param userId       the user's id
+     * @param tokenVersion the security version embedded in the token
+     * @return true if the user's lock or enabled flag has not changed since the token was issued
+     */
+    public boolean isCurrent(long userId, long tokenVersion) {
+        Long current = versions.get(userId);
+        return current == null || tokenVersion >= current;
+    }
+
+    /**
+     * Records a user's current security version.
+     *
+     * @param userId  the user's id
+     * @param version the user's security version
+     */
+    public void record(Long userId, long version) {
+        if (userId != null && version > 0) {
+            versions.merge(userId, version, Math::max);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void load() {
+        userService.changedSecurityVersions().forEach(this::record);
+    }
+
+    @EventListener
+    void onUserUpdated(UserUpdatedEvent event) {
+        User user = event.user();
+        record(user.getId(), user.getSecurityVersion());
+    }
+}
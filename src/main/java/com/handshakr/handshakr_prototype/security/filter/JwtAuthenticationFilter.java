@@ -2,11 +2,16 @@ package com.handshakr.handshakr_prototype.security.filter;
 
 import com.handshakr.handshakr_prototype.Constants;
 import com.handshakr.handshakr_prototype.security.auth.JwtService;
+import com.handshakr.handshakr_prototype.security.auth.TokenClaims;
+import com.handshakr.handshakr_prototype.security.auth.TokenPrincipal;
+import com.handshakr.handshakr_prototype.security.auth.UserVersionTable;
+import com.handshakr.handshakr_prototype.security.revocation.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -26,16 +31,33 @@ import java.util.Optional;
  * A filter that processes JWT authentication from the Authorization header or HTTP cookies.
  *
  * <p>Sets the {@link SecurityContextHolder} if the token is valid and user details are found.</p>
+ *
+ * <p>With {@code jwt.stateless-auth=true} the principal is built from the user snapshot embedded in
+ * the token instead of being loaded from the database. Disabled or locked snapshots, and snapshots
+ * older than the user's current security version in {@link UserVersionTable}, are not authenticated.
+ * Tokens without a snapshot fall back to loading the user.</p>
+ *
+ * <p>Tokens revoked through {@link TokenRevocationService}, for example on logout, are not authenticated.</p>
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserVersionTable userVersionTable;
+    private final TokenRevocationService tokenRevocationService;
+    private final boolean statelessAuth;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   UserVersionTable userVersionTable,
+                                   TokenRevocationService tokenRevocationService,
+                                   @Value("${jwt.stateless-auth:false}") boolean statelessAuth) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.userVersionTable = userVersionTable;
+        this.tokenRevocationService = tokenRevocationService;
+        this.statelessAuth = statelessAuth;
     }
 
     @Override
@@ -52,19 +74,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            String jwt = jwtToken.get();
-            String username = jwtService.extractUsername(jwt);
+            // Signature and expiry are verified once here; the subject is then trusted as-is
+            Optional<TokenClaims> claims = jwtService.validateToken(jwtToken.get())
+                    .filter(verified -> verified.subject() != null)
+                    .filter(verified -> !tokenRevocationService.isRevoked(verified));
 
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-            if (username != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            if (claims.isPresent() && authentication == null) {
+                Optional<UserDetails> userDetails = resolvePrincipal(claims.get());
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (userDetails.isPresent()) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            userDetails.get(),
                             null,
-                            userDetails.getAuthorities()
+                            userDetails.get().getAuthorities()
                     );
 
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -80,7 +104,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
-    private Optional<String> extractToken(HttpServletRequest request) {
+    private Optional<UserDetails> resolvePrincipal(TokenClaims claims) {
+        if (statelessAuth) {
+            Optional<TokenPrincipal> snapshot = TokenPrincipal.from(claims);
+            if (snapshot.isPresent()) {
+                return snapshot
+                        .filter(principal -> principal.isEnabled() && principal.isAccountNonLocked())
+                        .filter(principal -> userVersionTable.isCurrent(principal.id(), principal.securityVersion()))
+                        .map(UserDetails.class::cast);
+            }
+        }
+        return Optional.of(userDetailsService.loadUserByUsername(claims.subject()));
+    }
+
+    /**
+     * Extracts the JWT from the {@code Authorization: Bearer} header, falling back to the JWT cookie.
+     *
+     * @param request the incoming request
+     * @return the compact token, or empty if the request carries none
+     */
+    public static Optional<String> extractToken(HttpServletRequest request) {
         return Optional.ofNullable(request.getHeader("Authorization"))
                 .filter(header -> header.startsWith("Bearer "))
                 .map(header -> header.substring(7))
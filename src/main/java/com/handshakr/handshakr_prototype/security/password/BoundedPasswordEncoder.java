@@ -0,0 +1,166 @@
+package com.handshakr.handshakr_prototype.security.password;
+
+import com.handshakr.handshakr_prototype.exceptions.security.AuthenticationOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A {@link PasswordEncoder} that runs the delegate's hashing on a dedicated, fixed-size pool.
+ *
+ * <p>Password hashing is deliberately CPU-expensive. Running it on request threads lets a burst of logins
+ * occupy every worker and starve unrelated requests. Here at most {@code threads} hashes run at once and at
+ * most {@code queueCapacity} more wait; anything beyond that, or anything that waits longer than
+ * {@code maxWait}, fails immediately with an {@link AuthenticationOverloadedException} (503 with
+ * {@code Retry-After}).</p>
+ *
+ * <p>Publishes {@code password.hash.queue.depth} and {@code password.hash.active} gauges,
+ * {@code password.hash.latency} and {@code password.hash.wait} timers tagged by operation, and a
+ * {@code password.hash.rejected} counter.</p>
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitNanos;
+    private final long retryAfterSeconds;
+    private final Counter rejected;
+    private final Timer encodeWait;
+    private final Timer encodeLatency;
+    private final Timer matchesWait;
+    private final Timer matchesLatency;
+
+    /**
+     * Creates a bounded encoder.
+     *
+     * @param delegate          the encoder doing the actual hashing
+     * @param threads           the number of hashes that may run concurrently
+     * @param queueCapacity     the number of hashes that may wait for a thread
+     * @param maxWait           how long a caller waits for its hash before giving up
+     * @param retryAfterSeconds the {@code Retry-After} hint returned when load is shed
+     * @param meterRegistry     the registry for queue and latency metrics
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration maxWait,
+                                  long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("password.hash.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes currently running")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Password hashes refused because the hashing pool was saturated")
+                .register(meterRegistry);
+        this.encodeWait = waitTimer("encode", meterRegistry);
+        this.encodeLatency = latencyTimer("encode", meterRegistry);
+        this.matchesWait = waitTimer("matches", meterRegistry);
+        this.matchesLatency = latencyTimer("matches", meterRegistry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeWait, encodeLatency, () -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesWait, matchesLatency, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Stops the hashing pool. Hashes already queued are allowed to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Timer wait, Timer latency, Supplier<T> hash) {
+        long submitted = System.nanoTime();
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                wait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return latency.record(hash);
+            });
+        } catch (RejectedExecutionException e) {
+            throw overloaded();
+        }
+
+        try {
+            return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw overloaded();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw overloaded();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private AuthenticationOverloadedException overloaded() {
+        rejected.increment();
+        return new AuthenticationOverloadedException(
+                "Authentication is temporarily overloaded, please retry shortly", retryAfterSeconds);
+    }
+
+    private static Timer waitTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("password.hash.wait")
+                .description("Time password hashes spent queued")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Timer latencyTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("password.hash.latency")
+                .description("Time spent computing password hashes")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "password-hash-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.handshakr.handshakr_prototype.security.password;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds the application's {@link DelegatingPasswordEncoder} and picks its hashing cost for the running machine.
+ *
+ * <p>Each supported cost is a ladder step with its own encoder id, such as {@code {pbkdf2-600000}} or
+ * {@code {bcrypt-12}}, so stored hashes record the parameters they were made with and any step can still be
+ * verified. Hashes stored before ids were introduced have no prefix and are verified with the Spring Security
+ * 5.8 PBKDF2 defaults. A stored hash whose id differs from the current one is reported by
+ * {@link PasswordEncoder#upgradeEncoding(String)} so it can be re-hashed on the next successful login.</p>
+ *
+ * <p>{@link #calibrate(String, Duration)} times each step of a ladder on this machine and returns the most
+ * expensive one that still hashes within the target latency.</p>
+ */
+public final class PasswordHashing {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashing.class);
+
+    /** Encoder family using PBKDF2-HMAC-SHA256. */
+    public static final String PBKDF2 = "pbkdf2";
+    /** Encoder family using BCrypt. */
+    public static final String BCRYPT = "bcrypt";
+
+    private static final int[] PBKDF2_ITERATIONS = {310_000, 450_000, 600_000, 900_000, 1_200_000};
+    private static final int[] BCRYPT_STRENGTHS = {10, 11, 12, 13, 14};
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private PasswordHashing() {
+    }
+
+    /**
+     * Creates a delegating encoder that hashes with the given id and verifies every known id.
+     *
+     * @param idForEncode the encoder id used for new hashes, e.g. {@code pbkdf2-600000}
+     * @return the delegating encoder
+     * @throws IllegalArgumentException if the id is not a known ladder step
+     */
+    public static DelegatingPasswordEncoder delegating(String idForEncode) {
+        Map<String, PasswordEncoder> encoders = new LinkedHashMap<>();
+        encoders.putAll(ladder(PBKDF2));
+        encoders.putAll(ladder(BCRYPT));
+        if (!encoders.containsKey(idForEncode)) {
+            throw new IllegalArgumentException("Unknown password encoder id: " + idForEncode);
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        return delegating;
+    }
+
+    /**
+     * Returns the encoders of one family ordered from cheapest to most expensive, keyed by encoder id.
+     *
+     * @param family {@link #PBKDF2} or {@link #BCRYPT}
+     * @return the ladder of encoders
+     */
+    public static Map<String, PasswordEncoder> ladder(String family) {
+        Map<String, PasswordEncoder> ladder = new LinkedHashMap<>();
+        switch (family) {
+            case PBKDF2 -> Arrays.stream(PBKDF2_ITERATIONS).forEach(iterations ->
+                    ladder.put(PBKDF2 + "-" + iterations, new Pbkdf2PasswordEncoder(
+                            "", 16, iterations, Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256)));
+            case BCRYPT -> Arrays.stream(BCRYPT_STRENGTHS).forEach(strength ->
+                    ladder.put(BCRYPT + "-" + strength, new BCryptPasswordEncoder(strength)));
+            default -> throw new IllegalArgumentException("Unknown password encoder family: " + family);
+        }
+        return ladder;
+    }
+
+    /**
+     * Times the ladder of one family on this machine and picks its most expensive step within the target.
+     *
+     * <p>Steps are measured from cheapest up and measuring stops at the first step over the target. If even
+     * the cheapest step is over the target, the cheapest step is returned.</p>
+     *
+     * @param family {@link #PBKDF2} or {@link #BCRYPT}
+     * @param target the longest acceptable time for a single hash
+     * @return the chosen step and its median hashing time
+     */
+    public static Calibration calibrate(String family, Duration target) {
+        Calibration chosen = null;
+        for (Map.Entry<String, PasswordEncoder> step : ladder(family).entrySet()) {
+            Duration median = medianHashTime(step.getValue());
+            logger.debug("Password encoder {} takes {} ms", step.getKey(), median.toMillis());
+            if (chosen != null && median.compareTo(target) > 0) {
+                break;
+            }
+            chosen = new Calibration(step.getKey(), median);
+            if (median.compareTo(target) > 0) {
+                break;
+            }
+        }
+        logger.info("Calibrated {} to {} ({} ms per hash, target {} ms)",
+                family, chosen.encoderId(), chosen.hashTime().toMillis(), target.toMillis());
+        return chosen;
+    }
+
+    private static Duration medianHashTime(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] nanos = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return Duration.ofNanos(nanos[SAMPLES / 2]);
+    }
+
+    /**
+     * The outcome of calibrating one encoder family.
+     *
+     * @param encoderId the id of the chosen ladder step
+     * @param hashTime  the median time the chosen step took to hash on this machine
+     */
+    public record Calibration(String encoderId, Duration hashTime) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.handshakr.handshakr_prototype.security.revocation;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A JWT that was revoked before its natural expiry, identified by its {@code jti} claim.
+ *
+ * <p>Rows are only needed until the token would have expired anyway and are purged after that.</p>
+ */
+@Entity
+@Table(name = "RevokedTokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt"),
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revokedAt")
+})
+@NoArgsConstructor
+@Getter
+public class RevokedToken {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+    @Column(nullable = false)
+    private Instant expiresAt;
+    @Column(nullable = false)
+    private Instant revokedAt;
+
+    /**
+     * Constructs a revocation record for the given token.
+     */
+    public RevokedToken(String jti, Instant expiresAt, Instant revokedAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+}
@@ -0,0 +1,26 @@
+package com.handshakr.handshakr_prototype.security.revocation;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository interface for performing CRUD operations on {@link RevokedToken} entities.
+ */
+@Repository
+public interface RevokedTokenRepository extends CrudRepository<RevokedToken, String> {
+
+    /**
+     * Retrieves revocations recorded after the given instant for tokens that have not yet expired.
+     */
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(Instant revokedAfter, Instant now);
+
+    /**
+     * Deletes revocations for tokens that expired before the given instant.
+     */
+    @Transactional
+    long deleteByExpiresAtBefore(Instant now);
+}
@@ -0,0 +1,158 @@
+package com.handshakr.handshakr_prototype.security.revocation;
+
+import com.handshakr.handshakr_prototype.security.auth.JwtService;
+import com.handshakr.handshakr_prototype.security.auth.TokenClaims;
+import com.handshakr.handshakr_prototype.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks JWTs revoked before their natural expiry, such as on logout.
+ *
+ * <p>Revocations are persisted as {@link RevokedToken} rows and mirrored into in-memory Bloom filters,
+ * one per hour of token expiry. A token is checked against the single filter for its expiry hour, so the
+ * common "not revoked" case never touches the database; only a possible match is confirmed with an exact
+ * lookup. Filters for hours that have fully passed are dropped whole, which expires their entries without
+ * rebuilding anything.</p>
+ *
+ * <p>Revocations made on other nodes are picked up by a periodic sync that only reads rows recorded since
+ * the previous sync.</p>
+ */
+@Service
+public class TokenRevocationService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+    private static final long BUCKET_SECONDS = Duration.ofHours(1).toSeconds();
+    // Re-reads a short window before the last sync so rows committed late are not missed
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokens;
+    private final JwtService jwtService;
+    private final long expectedPerBucket;
+    private final double falsePositiveRate;
+    private final Map<Long, BloomFilter> buckets = new ConcurrentHashMap<>();
+    private final Counter confirmed;
+    private final Counter falsePositives;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public TokenRevocationService(
+            RevokedTokenRepository revokedTokens,
+            JwtService jwtService,
+            @Value("${security.revocation.expected-per-hour:10000}") long expectedPerBucket,
+            @Value("${security.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+            MeterRegistry meterRegistry) {
+        this.revokedTokens = revokedTokens;
+        this.jwtService = jwtService;
+        this.expectedPerBucket = expectedPerBucket;
+        this.falsePositiveRate = falsePositiveRate;
+        this.confirmed = lookupCounter(meterRegistry, "revoked");
+        this.falsePositives = lookupCounter(meterRegistry, "false_positive");
+    }
+
+    /**
+     * Revokes a token so it is no longer accepted, if it is currently valid and carries a token id.
+     *
+     * @param token the compact JWT to revoke
+     */
+    public void revoke(String token) {
+        jwtService.validateToken(token).ifPresent(this::revoke);
+    }
+
+    /**
+     * Revokes the token described by the given verified claims.
+     *
+     * @param claims the verified claims of the token to revoke
+     */
+    public void revoke(TokenClaims claims) {
+        String jti = claims.tokenId();
+        if (jti == null || claims.expiration() == null) {
+            return;
+        }
+        revokedTokens.save(new RevokedToken(jti, claims.expiration(), Instant.now()));
+        remember(jti, claims.expiration());
+    }
+
+    /**
+     * Checks whether a token has been revoked.
+     *
+     * <p>If the revocation store cannot be reached to confirm a possible match, the token is treated
+     * as revoked.</p>
+     *
+     * @param claims the verified claims of the token to check
+     * @return true if the token was revoked
+     */
+    public boolean isRevoked(TokenClaims claims) {
+        String jti = claims.tokenId();
+        if (jti == null || claims.expiration() == null) {
+            return false;
+        }
+        BloomFilter filter = buckets.get(bucketOf(claims.expiration()));
+        if (filter == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        try {
+            boolean revoked = revokedTokens.existsById(jti);
+            (revoked ? confirmed : falsePositives).increment();
+            return revoked;
+        } catch (DataAccessException e) {
+            logger.warn("Could not confirm revocation of token {}; rejecting it", jti, e);
+            return true;
+        }
+    }
+
+    /**
+     * Loads revocations recorded since the last sync, including those made on other nodes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:30000}",
+            initialDelayString = "${security.revocation.sync-interval-ms:30000}")
+    public void sync() {
+        Instant now = Instant.now();
+        Instant since = lastSync == Instant.EPOCH ? Instant.EPOCH : lastSync.minus(SYNC_OVERLAP);
+        revokedTokens.findByRevokedAtAfterAndExpiresAtAfter(since, now)
+                .forEach(revoked -> remember(revoked.getJti(), revoked.getExpiresAt()));
+        lastSync = now;
+    }
+
+    /**
+     * Drops filters and stored revocations for tokens that have already expired.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        long current = bucketOf(now);
+        buckets.keySet().removeIf(bucket -> bucket < current);
+        long purged = revokedTokens.deleteByExpiresAtBefore(now);
+        if (purged > 0) {
+            logger.info("Purged {} expired token revocations", purged);
+        }
+    }
+
+    private void remember(String jti, Instant expiresAt) {
+        buckets.computeIfAbsent(bucketOf(expiresAt), bucket -> BloomFilter.create(expectedPerBucket, falsePositiveRate))
+                .put(jti);
+    }
+
+    private static long bucketOf(Instant expiresAt) {
+        return Math.floorDiv(expiresAt.getEpochSecond(), BUCKET_SECONDS);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("token.revocation.lookups")
+                .description("Revocation checks that passed the Bloom filter and were confirmed in storage")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
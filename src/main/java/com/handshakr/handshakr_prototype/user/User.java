@@ -6,29 +6,39 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Represents a registered user in the system.
  * Implements Spring Security's {@link UserDetails} to integrate with the authentication framework.
  */
 @Entity
-@Table(name="Users")
+@Table(name="Users", uniqueConstraints = {
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username"),
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
+})
 @NoArgsConstructor
 @Getter
 @Setter
 public class User implements UserDetails {
+    /** Name of the unique constraint on {@code username}. */
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    /** Name of the unique constraint on {@code email}. */
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
 
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
     @Column(nullable = false)
     private String password;
@@ -40,6 +50,21 @@ public class User implements UserDetails {
     private boolean credentialsNonExpired = true;
     private boolean enabled = true;
 
+    /**
+     * When a lock for repeated failed logins ends, or null if there has been none. Unlike
+     * {@code accountNonLocked}, this lock lifts on its own.
+     */
+    @Column
+    private Instant lockedUntil;
+
+    /**
+     * Incremented whenever the lock or enabled flag changes, so tokens issued
+     * before the change can be recognised as stale without loading the user.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long securityVersion;
+
     /**
      * Constructs a user with the given credentials.
      */
@@ -77,7 +102,7 @@ public class User implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return accountNonLocked;
+        return accountNonLocked && (lockedUntil == null || !lockedUntil.isAfter(Instant.now()));
     }
 
     @Override
@@ -89,4 +114,25 @@ public class User implements UserDetails {
     public boolean isEnabled() {
         return enabled;
     }
+
+    public void setAccountNonLocked(boolean accountNonLocked) {
+        if (this.accountNonLocked != accountNonLocked) {
+            securityVersion++;
+        }
+        this.accountNonLocked = accountNonLocked;
+    }
+
+    public void setLockedUntil(Instant lockedUntil) {
+        if (!Objects.equals(this.lockedUntil, lockedUntil)) {
+            securityVersion++;
+        }
+        this.lockedUntil = lockedUntil;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (this.enabled != enabled) {
+            securityVersion++;
+        }
+        this.enabled = enabled;
+    }
 }
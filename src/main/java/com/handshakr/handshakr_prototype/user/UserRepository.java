@@ -1,10 +1,18 @@
 package com.handshakr.handshakr_prototype.user;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.handshakr.handshakr_prototype.Constants.STREAM_FETCH_SIZE;
 
 /**
  * Repository interface for performing CRUD operations on {@link User} entities.
@@ -18,6 +26,11 @@ public interface UserRepository extends CrudRepository<User,Long> {
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * Finds every user whose username is in the given collection, in one query.
+     */
+    List<User> findAllByUsernameIn(Collection<String> usernames);
+
     /**
      * Finds a user by their unique email.
      */
@@ -39,4 +52,33 @@ public interface UserRepository extends CrudRepository<User,Long> {
     @Override
     List<User> findAll();
 
+    /**
+     * Retrieves every username without loading the users.
+     */
+    @Query("select u.username from User u")
+    List<String> findAllUsernames();
+
+    /**
+     * Streams every username without loading the users, fetching
+     * {@value com.handshakr.handshakr_prototype.Constants#STREAM_FETCH_SIZE} rows per round trip so memory use does
+     * not grow with the number of users. Must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("select u.username from User u")
+    Stream<String> streamAllUsernames();
+
+    /**
+     * Retrieves the id and security version of every user whose lock or enabled flag has changed.
+     */
+    @Query("select u.id as id, u.securityVersion as securityVersion from User u where u.securityVersion > 0")
+    List<SecurityVersion> findChangedSecurityVersions();
+
+    /**
+     * Projection of a user's id and security version.
+     */
+    interface SecurityVersion {
+        Long getId();
+        long getSecurityVersion();
+    }
+
 }
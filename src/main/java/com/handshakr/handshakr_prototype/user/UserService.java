@@ -2,7 +2,10 @@ package com.handshakr.handshakr_prototype.user;
 
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.Map;
 
 /**
  * Service interface for handling business logic related to {@link User} entities.
@@ -16,6 +19,13 @@ public interface UserService {
      */
     User findByUsername(String username);
 
+    /**
+     * Finds several users by username in a single query.
+     * @param usernames the usernames to search for
+     * @return the users found, keyed by username; usernames with no user are absent
+     */
+    Map<String, User> findAllByUsername(Collection<String> usernames);
+
     /**
      * Finds a user by their email.
      * @param email the email to search for
@@ -44,9 +54,33 @@ public interface UserService {
     List<String> users();
 
     /**
-     * Saves a new or existing user.
+     * Passes every username in the system to the given action, one at a time, without holding them all in
+     * memory. Failures reading the first batch are reported as usual; later ones propagate as they are.
+     *
+     * @param action receives each username
+     */
+    void forEachUsername(Consumer<? super String> action);
+
+    /**
+     * Retrieves the security version of every user whose lock or enabled flag has ever changed.
+     * @return map of user id to security version
+     */
+    Map<Long, Long> changedSecurityVersions();
+
+    /**
+     * Replaces a user's stored password hash, e.g. after re-hashing it with current parameters.
+     * @param username the user whose password to replace
+     * @param encodedPassword the new password hash
+     * @return the saved user
+     */
+    User updatePassword(String username, String encodedPassword);
+
+    /**
+     * Saves a new or existing user and publishes a {@link UserUpdatedEvent}.
      * @param user the user to save
      * @return the saved user
+     * @throws com.handshakr.handshakr_prototype.exceptions.user.UserAlreadyExistsException
+     *         if the username or email belongs to another user
      */
     User saveUser(User user);
 }
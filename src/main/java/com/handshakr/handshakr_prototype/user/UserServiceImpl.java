@@ -1,11 +1,19 @@
 package com.handshakr.handshakr_prototype.user;
 
 import com.handshakr.handshakr_prototype.exceptions.UserExceptionFactory;
+import jakarta.transaction.Transactional;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of {@link UserService}.
@@ -15,10 +23,14 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserExceptionFactory userExceptionFactory;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserServiceImpl(UserRepository userRepository, UserExceptionFactory userExceptionFactory) {
+    public UserServiceImpl(UserRepository userRepository,
+                           UserExceptionFactory userExceptionFactory,
+                           ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.userExceptionFactory = userExceptionFactory;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -34,6 +46,20 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> userExceptionFactory.userNotFound(username));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, User> findAllByUsername(Collection<String> usernames) {
+        try {
+            return userRepository.findAllByUsernameIn(usernames)
+                    .stream()
+                    .collect(Collectors.toMap(User::getUsername, Function.identity()));
+        } catch (Exception e) {
+            throw userExceptionFactory.serviceUnavailable("Failed to retrieve users: " + e.getMessage());
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -53,15 +79,29 @@ public class UserServiceImpl implements UserService {
     @Override
     public List<String> users() {
         try {
-            return userRepository.findAll()
-                    .stream()
-                    .map(User::getUsername)
-                    .collect(Collectors.toList());
+            return userRepository.findAllUsernames();
         } catch (Exception e) {
             throw userExceptionFactory.serviceUnavailable("Failed to retrieve user list: " + e.getMessage());
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public void forEachUsername(Consumer<? super String> action) {
+        Stream<String> usernames;
+        try {
+            usernames = userRepository.streamAllUsernames();
+        } catch (Exception e) {
+            throw userExceptionFactory.serviceUnavailable("Failed to retrieve user list: " + e.getMessage());
+        }
+        try (usernames) {
+            usernames.forEach(action);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -92,6 +132,36 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Long, Long> changedSecurityVersions() {
+        try {
+            return userRepository.findChangedSecurityVersions()
+                    .stream()
+                    .collect(Collectors.toMap(
+                            UserRepository.SecurityVersion::getId,
+                            UserRepository.SecurityVersion::getSecurityVersion));
+        } catch (Exception e) {
+            throw userExceptionFactory.databaseError("Failed to load security versions: " + e.getMessage());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public User updatePassword(String username, String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isBlank()) {
+            throw userExceptionFactory.badRequest("Password cannot be empty");
+        }
+
+        User user = findByUsername(username);
+        user.setPassword(encodedPassword);
+        return saveUser(user);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -101,12 +171,47 @@ public class UserServiceImpl implements UserService {
             throw userExceptionFactory.badRequest("User cannot be null");
         }
 
+        User saved;
         try {
-            return userRepository.save(user);
+            saved = userRepository.save(user);
         } catch (DataIntegrityViolationException e) {
-            throw userExceptionFactory.databaseError("Database constraint violation: " + e.getMostSpecificCause().getMessage());
+            throw translateConstraintViolation(user, e);
         } catch (Exception e) {
             throw userExceptionFactory.databaseError("Failed to save user: " + e.getMessage());
         }
+
+        eventPublisher.publishEvent(new UserUpdatedEvent(saved));
+        return saved;
+    }
+
+    /**
+     * Maps a failed insert or update to the user-facing error for the unique constraint it violated.
+     *
+     * <p>Constraints are recognised by name. Databases whose constraints predate the names on {@link User}
+     * fall back to checking which value is taken, which only costs queries on this failure path.</p>
+     */
+    private RuntimeException translateConstraintViolation(User user, DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName() : null;
+
+        if (User.USERNAME_CONSTRAINT.equalsIgnoreCase(constraint)) {
+            return userExceptionFactory.userAlreadyExists(user.getUsername());
+        }
+        if (User.EMAIL_CONSTRAINT.equalsIgnoreCase(constraint)) {
+            return userExceptionFactory.userAlreadyExists(user.getEmail());
+        }
+        if (user.getId() == null) {
+            try {
+                if (userRepository.existsByUsername(user.getUsername())) {
+                    return userExceptionFactory.userAlreadyExists(user.getUsername());
+                }
+                if (userRepository.existsByEmail(user.getEmail())) {
+                    return userExceptionFactory.userAlreadyExists(user.getEmail());
+                }
+            } catch (Exception lookupFailure) {
+                e.addSuppressed(lookupFailure);
+            }
+        }
+        return userExceptionFactory.databaseError("Database constraint violation: " + e.getMostSpecificCause().getMessage());
     }
 }
@@ -0,0 +1,12 @@
+package com.handshakr.handshakr_prototype.user;
+
+/**
+ * Application event published by {@link UserService#saveUser(User)} after a user has been persisted.
+ *
+ * <p>Lets in-memory views of users (such as cached principals) refresh themselves
+ * without the user service depending on them.</p>
+ *
+ * @param user the user as it was saved
+ */
+public record UserUpdatedEvent(User user) {
+}
@@ -0,0 +1,136 @@
+package com.handshakr.handshakr_prototype.user;
+
+import com.handshakr.handshakr_prototype.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Answers whether a username is free without querying the database for the common case.
+ *
+ * <p>All taken usernames are kept in a {@link BloomFilter}. A username the filter has never seen is
+ * reported available straight away; a possible match is confirmed with an exact lookup. The filter is built
+ * at startup, updated whenever a user is saved on this node (see {@link UserUpdatedEvent}), and rebuilt
+ * periodically to pick up users registered on other nodes. Until the first build completes every check is
+ * exact. Usernames saved on this node are also kept until the rebuild after next and added to each rebuilt
+ * filter. A rebuild therefore never drops a username that was saved while it ran, or that was saved just before
+ * but not yet committed when the rebuild read its snapshot.</p>
+ *
+ * <p>The result is advisory: registration itself relies on the unique constraint on the username.</p>
+ *
+ * <p>Publishes {@code username.filter.memory}, {@code username.filter.false.positive.rate} and
+ * {@code username.filter.elements} gauges and a {@code username.filter.lookups} counter tagged with whether
+ * the exact lookup found the username taken or was a false positive.</p>
+ */
+@Component
+public class UsernameAvailability {
+    private final UserService userService;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final Counter taken;
+    private final Counter falsePositives;
+    private volatile BloomFilter filter;
+    private final AtomicReference<Queue<String>> saved = new AtomicReference<>(new ConcurrentLinkedQueue<>());
+
+    public UsernameAvailability(UserService userService,
+                                MeterRegistry meterRegistry,
+                                @Value("${security.username-filter.expected-users:1000000}") long expectedUsers,
+                                @Value("${security.username-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userService = userService;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+
+        Gauge.builder("username.filter.memory", this, availability -> availability.measure(BloomFilter::memoryBytes))
+                .description("Memory used by the username Bloom filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("username.filter.false.positive.rate", this,
+                        availability -> availability.measure(BloomFilter::expectedFalsePositiveRate))
+                .description("Estimated chance that a free username needs an exact lookup")
+                .register(meterRegistry);
+        Gauge.builder("username.filter.elements", this,
+                        availability -> availability.measure(BloomFilter::approximateElementCount))
+                .description("Approximate number of usernames in the filter")
+                .register(meterRegistry);
+        this.taken = lookupCounter(meterRegistry, "taken");
+        this.falsePositives = lookupCounter(meterRegistry, "false_positive");
+    }
+
+    /**
+     * Checks whether a username is free to register.
+     *
+     * @param username the username to check
+     * @return true if no user has the username
+     */
+    public boolean isAvailable(String username) {
+        BloomFilter current = filter;
+        if (current != null && username != null && !current.mightContain(username)) {
+            return true;
+        }
+
+        boolean exists = userService.usernameExists(username);
+        if (current != null) {
+            (exists ? taken : falsePositives).increment();
+        }
+        return !exists;
+    }
+
+    /**
+     * Rebuilds the filter from every username in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${security.username-filter.rebuild-interval-ms:3600000}",
+            initialDelayString = "${security.username-filter.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        Queue<String> savedEarlier = saved.getAndSet(new ConcurrentLinkedQueue<>());
+        List<String> usernames = userService.users();
+        // Leave room to grow so the false-positive rate holds until the next rebuild
+        BloomFilter rebuilt = BloomFilter.create(Math.max(expectedUsers, 2L * usernames.size()), falsePositiveRate);
+        usernames.forEach(rebuilt::put);
+        savedEarlier.forEach(rebuilt::put);
+        saved.get().forEach(rebuilt::put);
+        filter = rebuilt;
+        // Saves that read the old filter just before the swap put their username there, but recorded it first
+        savedEarlier.forEach(rebuilt::put);
+        saved.get().forEach(rebuilt::put);
+    }
+
+    /**
+     * Adds a newly saved user's username to the filter.
+     *
+     * @param event the event published after the user was saved
+     */
+    @EventListener
+    public void onUserUpdated(UserUpdatedEvent event) {
+        String username = event.user().getUsername();
+        // Recorded before the filter is read, so a rebuild that swaps the filter in between still replays it
+        saved.get().add(username);
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(username);
+        }
+    }
+
+    private double measure(ToDoubleFunction<BloomFilter> metric) {
+        BloomFilter current = filter;
+        return current == null ? Double.NaN : metric.applyAsDouble(current);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("username.filter.lookups")
+                .description("Availability checks the Bloom filter could not answer alone")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -5,6 +5,6 @@ import jakarta.validation.constraints.NotEmpty;
 import org.springframework.lang.NonNull;
 
 public record RegisterRequest(
-        @NotBlank @NotEmpty @NonNull String email,
         @NotBlank @NotEmpty @NonNull String username,
+        @NotBlank @NotEmpty @NonNull String email,
         @NotBlank @NotEmpty @NonNull String password) { }
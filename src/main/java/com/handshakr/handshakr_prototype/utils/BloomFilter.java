@@ -0,0 +1,142 @@
+package com.handshakr.handshakr_prototype.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe Bloom filter over strings.
+ *
+ * <p>Answers "definitely absent" or "possibly present" in constant time without locking.
+ * Bits are set with compare-and-set, so concurrent {@link #put(String)} and
+ * {@link #mightContain(String)} calls are safe. Elements cannot be removed.</p>
+ */
+public class BloomFilter {
+    private static final long SEED_1 = 0xcbf29ce484222325L;
+    private static final long SEED_2 = 0x9e3779b97f4a7c15L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final LongAdder setBits = new LongAdder();
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.words = new AtomicLongArray(Math.toIntExact((bitCount + 63) / 64));
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Creates a filter sized for the given number of elements and false-positive rate.
+     *
+     * @param expectedInsertions the number of elements the filter is expected to hold
+     * @param falsePositiveRate  the desired false-positive rate at that size, between 0 and 1
+     * @return an empty filter
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        long bits = Math.max(64, (long) Math.ceil(
+                -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        int hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        return new BloomFilter(bits, hashes);
+    }
+
+    /**
+     * Adds a value to the filter.
+     *
+     * @param value the value to add
+     */
+    public void put(String value) {
+        long h1 = hash(value, SEED_1);
+        long h2 = hash(value, SEED_2);
+        for (int i = 0; i < hashCount; i++) {
+            setBit(index(h1, h2, i));
+        }
+    }
+
+    /**
+     * Checks whether a value may have been added.
+     *
+     * @param value the value to check
+     * @return false if the value was definitely never added; true if it possibly was
+     */
+    public boolean mightContain(String value) {
+        long h1 = hash(value, SEED_1);
+        long h2 = hash(value, SEED_2);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(h1, h2, i);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estimates the current false-positive rate from the fraction of bits set.
+     *
+     * @return the probability that {@link #mightContain(String)} returns true for an absent value
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) setBits.sum() / bitCount, hashCount);
+    }
+
+    /**
+     * Estimates how many distinct values have been added.
+     *
+     * @return the approximate number of distinct values in the filter
+     */
+    public long approximateElementCount() {
+        double fractionSet = (double) setBits.sum() / bitCount;
+        return Math.round(-bitCount * Math.log1p(-fractionSet) / hashCount);
+    }
+
+    /**
+     * Returns the memory used by the filter's bit array.
+     *
+     * @return the size of the bit array in bytes
+     */
+    public long memoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    private void setBit(long bit) {
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(word, current, current | mask));
+        setBits.increment();
+    }
+
+    private long index(long h1, long h2, int i) {
+        return ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+    }
+
+    private static long hash(String value, long seed) {
+        long h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return mix(h ^ value.length());
+    }
+
+    private static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,36 @@
+-- Give the single-column unique constraints the names User.USERNAME_CONSTRAINT,
+-- User.EMAIL_CONSTRAINT and Handshake.HANDSHAKE_NAME_CONSTRAINT, which duplicate
+-- inserts are recognised by. The baseline left the names to Hibernate and the
+-- database, so each constraint is found by its column rather than its name;
+-- renaming it renames its index too. A missing constraint is created.
+do $$
+declare
+    target   record;
+    existing name;
+begin
+    for target in
+        select *
+        from (values ('users', 'username', 'uk_users_username'),
+                     ('users', 'email', 'uk_users_email'),
+                     ('handshakes', 'handshake_name', 'uk_handshakes_handshake_name')) t (table_name, column_name, constraint_name)
+    loop
+        select c.conname
+        into existing
+        from pg_constraint c
+                 join pg_attribute a on a.attrelid = c.conrelid and a.attnum = c.conkey[1]
+        where c.conrelid = target.table_name::regclass
+          and c.contype = 'u'
+          and cardinality(c.conkey) = 1
+          and a.attname = target.column_name
+        limit 1;
+
+        if existing is null then
+            execute format('alter table %I add constraint %I unique (%I)',
+                           target.table_name, target.constraint_name, target.column_name);
+        elsif existing <> target.constraint_name then
+            execute format('alter table %I rename constraint %I to %I',
+                           target.table_name, existing, target.constraint_name);
+        end if;
+    end loop;
+end
+$$;
@@ -0,0 +1,38 @@
+-- Schema exactly as Hibernate generated it before migrations were introduced,
+-- constraint names included. Every statement is a no-op on a database that
+-- already has it, so existing deployments can adopt Flyway with
+-- spring.flyway.baseline-on-migrate=true and spring.flyway.baseline-version=0.
+-- Later changes to these tables belong in their own migrations.
+
+create sequence if not exists users_seq start with 1 increment by 50;
+
+create table if not exists users (
+    account_non_expired     boolean      not null,
+    account_non_locked      boolean      not null,
+    credentials_non_expired boolean      not null,
+    enabled                 boolean      not null,
+    id                      bigint       not null,
+    email                   varchar(255) not null unique,
+    password                varchar(255) not null,
+    public_key              varchar(255),
+    username                varchar(255) not null unique,
+    primary key (id)
+);
+
+-- handshake_status holds HandshakeStatus ordinals: 0 CREATED, 1 PENDING, 2 ACCEPTED,
+-- 3 CANCELLED, 4 COMPLETED, 5 FAILED
+create table if not exists handshakes (
+    handshake_status        smallint                    not null check (handshake_status between 0 and 5),
+    created_date            timestamp(6) with time zone not null,
+    id                      bigint generated by default as identity,
+    initiator_id            bigint,
+    most_recent_update_date timestamp(6) with time zone,
+    receiver_id             bigint,
+    encrypted_details       varchar(255),
+    handshake_name          varchar(255)                not null unique,
+    initiator_username      varchar(255)                not null,
+    receiver_username       varchar(255)                not null,
+    primary key (id),
+    constraint FKt4esg6yxj16spdj0is1vyn6rk foreign key (initiator_id) references users,
+    constraint FKfchmg29h93towhhijivvauvnk foreign key (receiver_id) references users
+);
@@ -0,0 +1,27 @@
+-- One index per HandshakeRepository access path. findByHandshakeName and
+-- existsByHandshakeName are served by uk_handshakes_handshake_name.
+
+-- findByInitiatorUsername, findAllByInitiatorUsername and the keyset pages ordered
+-- by (created_date, id); the trailing columns let pages be read straight off the index
+create index if not exists idx_handshakes_initiator_created
+    on handshakes (initiator_username, created_date, id);
+
+-- findByReceiverUsername, findAllByReceiverUsername and the keyset pages
+create index if not exists idx_handshakes_receiver_created
+    on handshakes (receiver_username, created_date, id);
+
+-- Handshakes still awaiting a response (CREATED, PENDING), by receiver then status.
+-- Closed handshakes make up most of the table and are left out, keeping this small.
+create index if not exists idx_handshakes_receiver_open
+    on handshakes (receiver_username, handshake_status, created_date, id)
+    where handshake_status in (0, 1);
+
+-- The same for the initiator's outgoing handshakes
+create index if not exists idx_handshakes_initiator_open
+    on handshakes (initiator_username, handshake_status, created_date, id)
+    where handshake_status in (0, 1);
+
+-- The foreign keys are not indexed by Postgres itself; without these, deleting or
+-- re-keying a user scans the whole table
+create index if not exists idx_handshakes_initiator_id on handshakes (initiator_id);
+create index if not exists idx_handshakes_receiver_id on handshakes (receiver_id);
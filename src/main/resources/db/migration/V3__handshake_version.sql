@@ -0,0 +1,3 @@
+-- Optimistic-locking version of each handshake, incremented on every update and
+-- published to clients as its ETag. Existing handshakes start at version 0.
+alter table handshakes add column if not exists version bigint not null default 0;
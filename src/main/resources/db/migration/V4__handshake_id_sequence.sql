@@ -0,0 +1,15 @@
+-- Handshake ids move from an identity column to a sequence so Hibernate can
+-- assign them before inserting and send inserts in JDBC batches. The pooled
+-- optimizer takes 50 ids per call: a call returning n hands out n-49 .. n.
+
+create sequence if not exists handshakes_seq increment by 50;
+
+-- The first call returns max(id) + 50, so the first allocation starts just past every existing id
+select setval('handshakes_seq', coalesce((select max(id) from handshakes), 0) + 50, false);
+
+alter table handshakes alter column id drop identity if exists;
+
+-- Keep inserts that do not name an id working. Each nextval reserves a whole
+-- allocation, so such a row never takes an id Hibernate may hand out.
+alter table handshakes alter column id set default nextval('handshakes_seq');
+alter sequence handshakes_seq owned by handshakes.id;
@@ -0,0 +1,24 @@
+-- Transactional outbox of handshake lifecycle events. Each row is written in the
+-- transaction that changes the handshake, snapshotting it as of that change, and
+-- relayed to consumers once committed. handshake_status holds HandshakeStatus ordinals.
+create table if not exists handshake_outbox (
+    id                 bigint generated by default as identity,
+    handshake_name     varchar(255)                not null,
+    event_type         varchar(32)                 not null check (event_type in ('CREATED', 'STATUS_CHANGED')),
+    handshake_status   smallint                    not null check (handshake_status between 0 and 5),
+    version            bigint                      not null,
+    initiator_username varchar(255)                not null,
+    receiver_username  varchar(255)                not null,
+    occurred_at        timestamp(6) with time zone not null,
+    published_at       timestamp(6) with time zone,
+    primary key (id)
+);
+
+-- The relay claims the oldest unpublished rows; relayed rows drop out of this index,
+-- so it stays as small as the backlog
+create index if not exists idx_handshake_outbox_unpublished
+    on handshake_outbox (id)
+    where published_at is null;
+
+-- Purging relayed rows past their retention
+create index if not exists idx_handshake_outbox_published_at on handshake_outbox (published_at);
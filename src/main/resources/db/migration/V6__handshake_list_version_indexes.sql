@@ -0,0 +1,10 @@
+-- Carry version in the per-user listing indexes, so the count and version sum of a
+-- user's handshakes, which validate conditional GETs of their listings, are read
+-- from the index alone without visiting the table.
+drop index if exists idx_handshakes_initiator_created;
+create index idx_handshakes_initiator_created
+    on handshakes (initiator_username, created_date, id) include (version);
+
+drop index if exists idx_handshakes_receiver_created;
+create index idx_handshakes_receiver_created
+    on handshakes (receiver_username, created_date, id) include (version);
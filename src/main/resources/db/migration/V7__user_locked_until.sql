@@ -0,0 +1,4 @@
+-- Locks for repeated failed logins end at locked_until instead of clearing
+-- account_non_locked, so they lift without anyone having to unlock the account.
+-- account_non_locked is left to locks placed on purpose, which do not expire.
+alter table users add column if not exists locked_until timestamp(6) with time zone;
@@ -0,0 +1,3 @@
+-- Incremented whenever a user's lock or enabled flag changes, so tokens issued
+-- before the change can be recognised as stale without loading the user.
+alter table users add column if not exists security_version bigint not null default 0;
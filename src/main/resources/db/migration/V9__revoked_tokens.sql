@@ -0,0 +1,13 @@
+-- JWT ids revoked on logout, kept until the token would have expired anyway
+create table if not exists revoked_tokens (
+    jti        varchar(36)                 not null,
+    expires_at timestamp(6) with time zone not null,
+    revoked_at timestamp(6) with time zone not null,
+    primary key (jti)
+);
+
+-- Purging entries whose token has expired
+create index if not exists idx_revoked_tokens_expires_at on revoked_tokens (expires_at);
+
+-- Loading the entries revoked since a node last looked
+create index if not exists idx_revoked_tokens_revoked_at on revoked_tokens (revoked_at);
@@ -0,0 +1,134 @@
+package com.handshakr.handshakr_prototype.benchmark;
+
+import com.handshakr.handshakr_prototype.security.PersistentCookieCsrfTokenRepository;
+import com.handshakr.handshakr_prototype.security.auth.JwtServiceImpl;
+import com.handshakr.handshakr_prototype.security.auth.UserVersionTable;
+import com.handshakr.handshakr_prototype.security.filter.JwtAuthenticationFilter;
+import com.handshakr.handshakr_prototype.security.revocation.TokenRevocationService;
+import com.handshakr.handshakr_prototype.user.User;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.web.csrf.CsrfToken;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import static com.handshakr.handshakr_prototype.Constants.JWT_COOKIE_NAME;
+
+/**
+ * Measures the code every authenticated request runs through, one benchmark per step.
+ *
+ * <ul>
+ *     <li>{@code generateToken} - issuing a token at login</li>
+ *     <li>{@code isTokenValid} / {@code extractUsername} - the {@link JwtServiceImpl} checks for a token seen before</li>
+ *     <li>{@code loadCsrfToken} - {@link PersistentCookieCsrfTokenRepository#loadToken} reading the CSRF cookie</li>
+ *     <li>{@code filterStateless} / {@code filterLoadUser} - {@link JwtAuthenticationFilter} on a mock request
+ *     carrying the JWT cookie, with and without {@code jwt.stateless-auth}</li>
+ *     <li>{@code passwordMatches} - {@link Pbkdf2PasswordEncoder#matches} with the Spring Security 5.8 defaults</li>
+ * </ul>
+ *
+ * <p>The {@code benchmark} profile runs with the gc profiler, so each result is reported with its allocation
+ * rate ({@code gc.alloc.rate.norm}, bytes per operation) alongside its latency.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AuthHotPathBenchmark {
+    private static final String PASSWORD = "benchmark-password";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtServiceImpl jwtService;
+    private User user;
+    private String token;
+    private PersistentCookieCsrfTokenRepository csrfTokenRepository;
+    private MockHttpServletRequest csrfRequest;
+    private JwtAuthenticationFilter statelessFilter;
+    private JwtAuthenticationFilter loadUserFilter;
+    private MockHttpServletRequest filterRequest;
+    private MockHttpServletResponse filterResponse;
+    private String filteredAttribute;
+    private Pbkdf2PasswordEncoder passwordEncoder;
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtServiceImpl();
+        jwtService.setSecretKey(Base64.getEncoder().encodeToString(Jwts.SIG.HS256.key().build().getEncoded()));
+        user = new User("benchmark-user", "benchmark@test.com", "unused");
+        user.setId(1L);
+        token = jwtService.generateToken(user);
+        jwtService.validateToken(token);
+
+        csrfTokenRepository = new PersistentCookieCsrfTokenRepository();
+        csrfRequest = new MockHttpServletRequest("POST", "/handshake/create");
+        csrfRequest.setCookies(new Cookie("XSRF-TOKEN", "benchmark-csrf-token"));
+
+        // No token is ever revoked, so revocation checks never reach the (absent) repository
+        TokenRevocationService revocationService =
+                new TokenRevocationService(null, jwtService, 1000, 0.001, new SimpleMeterRegistry());
+        UserVersionTable versionTable = new UserVersionTable(null);
+        statelessFilter = new JwtAuthenticationFilter(jwtService, username -> user, versionTable, revocationService, true);
+        loadUserFilter = new JwtAuthenticationFilter(jwtService, username -> user, versionTable, revocationService, false);
+        filterRequest = new MockHttpServletRequest("GET", "/auth/validate");
+        filterRequest.setCookies(new Cookie(JWT_COOKIE_NAME, token));
+        filterResponse = new MockHttpServletResponse();
+        filteredAttribute = JwtAuthenticationFilter.class.getName() + ".FILTERED";
+
+        passwordEncoder = Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+        encodedPassword = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public CsrfToken loadCsrfToken() {
+        return csrfTokenRepository.loadToken(csrfRequest);
+    }
+
+    @Benchmark
+    public Authentication filterStateless() throws Exception {
+        return filter(statelessFilter);
+    }
+
+    @Benchmark
+    public Authentication filterLoadUser() throws Exception {
+        return filter(loadUserFilter);
+    }
+
+    @Benchmark
+    public boolean passwordMatches() {
+        return passwordEncoder.matches(PASSWORD, encodedPassword);
+    }
+
+    private Authentication filter(JwtAuthenticationFilter filter) throws Exception {
+        // Reuse one request; clear the once-per-request marker and the authentication it produced
+        filterRequest.removeAttribute(filteredAttribute);
+        SecurityContextHolder.clearContext();
+        filter.doFilter(filterRequest, filterResponse, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
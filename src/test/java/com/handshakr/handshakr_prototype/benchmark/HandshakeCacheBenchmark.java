@@ -0,0 +1,122 @@
+package com.handshakr.handshakr_prototype.benchmark;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.handshakr.handshakr_prototype.handshake.HandshakeCache;
+import com.handshakr.handshakr_prototype.handshake.HandshakeStatus;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures {@link HandshakeCache} on a skewed read workload, where a few handshakes are read far more often
+ * than the rest.
+ *
+ * <ul>
+ *     <li>{@code cached} - a lookup through the cache, loading on a miss</li>
+ *     <li>{@code uncached} - every lookup goes to the loader, as before the cache</li>
+ * </ul>
+ *
+ * <p>Handshake names are drawn from a Zipfian distribution over {@value #HANDSHAKES} handshakes with exponent
+ * {@code skew}. The loader stands in for the database query by burning a fixed amount of CPU, so the results
+ * show the cache's own overhead and how much of the load it absorbs rather than real query latency. With
+ * {@code maxWeight} at 4 MiB about 2% of the handshakes fit, and at 32 MiB about 15%. The hit ratio of each
+ * {@code cached} iteration is printed after it. Run with {@code -t} to add concurrent readers.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HandshakeCacheBenchmark {
+    private static final int HANDSHAKES = 1_000_000;
+    private static final int SAMPLES = 1 << 20;
+    private static final long LOAD_TOKENS = 2_000;
+
+    @State(Scope.Benchmark)
+    public static class Workload {
+        @Param({"0.8", "0.99"})
+        double skew;
+
+        @Param({"4194304", "33554432"})
+        long maxWeight;
+
+        String[] names;
+        double[] cumulative;
+        HandshakeCache cache;
+        CacheStats reported = CacheStats.empty();
+        final Function<String, HandshakeDto> loader = HandshakeCacheBenchmark::load;
+
+        @Setup
+        public void setUp() {
+            names = new String[HANDSHAKES];
+            cumulative = new double[HANDSHAKES];
+            double total = 0;
+            for (int rank = 0; rank < HANDSHAKES; rank++) {
+                names[rank] = String.format("handshake-%06d", rank);
+                total += 1 / Math.pow(rank + 1, skew);
+                cumulative[rank] = total;
+            }
+            for (int rank = 0; rank < HANDSHAKES; rank++) {
+                cumulative[rank] /= total;
+            }
+            cache = new HandshakeCache(maxWeight, 3600, new SimpleMeterRegistry());
+        }
+
+        @TearDown(Level.Iteration)
+        public void report() {
+            CacheStats iteration = cache.stats().minus(reported);
+            reported = cache.stats();
+            if (iteration.requestCount() > 0) {
+                System.out.printf("%nhit ratio %.3f%n", iteration.hitRate());
+            }
+        }
+
+        int zipfian(double uniform) {
+            int rank = Arrays.binarySearch(cumulative, uniform);
+            return rank >= 0 ? rank : Math.min(-rank - 1, HANDSHAKES - 1);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Reader {
+        String[] keys;
+        int next;
+
+        @Setup
+        public void setUp(Workload workload) {
+            // Drawn up front so the benchmarks do not also measure sampling
+            SplittableRandom random = new SplittableRandom();
+            keys = new String[SAMPLES];
+            for (int i = 0; i < SAMPLES; i++) {
+                keys[i] = workload.names[workload.zipfian(random.nextDouble())];
+            }
+        }
+
+        String nextKey() {
+            return keys[next++ & (SAMPLES - 1)];
+        }
+    }
+
+    @Benchmark
+    public HandshakeDto cached(Workload workload, Reader reader) {
+        return workload.cache.get(reader.nextKey(), workload.loader);
+    }
+
+    @Benchmark
+    public HandshakeDto uncached(Reader reader) {
+        return load(reader.nextKey());
+    }
+
+    private static HandshakeDto load(String handshakeName) {
+        Blackhole.consumeCPU(LOAD_TOKENS);
+        return new HandshakeDto(handshakeName, "encrypted details", Instant.EPOCH, Instant.EPOCH,
+                HandshakeStatus.CREATED, "initiator", "receiver", 0L);
+    }
+}
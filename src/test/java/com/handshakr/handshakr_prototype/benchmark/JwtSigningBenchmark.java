@@ -0,0 +1,62 @@
+package com.handshakr.handshakr_prototype.benchmark;
+
+import com.handshakr.handshakr_prototype.security.auth.JwtKeyRing;
+import com.handshakr.handshakr_prototype.security.auth.JwtServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sign and verify throughput for each algorithm supported by {@link JwtKeyRing}.
+ *
+ * <ul>
+ *     <li>{@code sign} - {@link JwtServiceImpl#generateToken}, as done on every login</li>
+ *     <li>{@code verify} - a full signature check through the kid-based key locator, i.e. a
+ *     validation cache miss</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtSigningBenchmark {
+
+    @Param({"HS256", "ES256", "EdDSA"})
+    public JwtKeyRing.Algorithm algorithm;
+
+    private JwtServiceImpl jwtService;
+    private JwtParser parser;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtKeyRing keyRing = new JwtKeyRing(algorithm);
+        if (algorithm == JwtKeyRing.Algorithm.HS256) {
+            keyRing.useSecret(Base64.getEncoder().encodeToString(Jwts.SIG.HS256.key().build().getEncoded()));
+        }
+        jwtService = new JwtServiceImpl(keyRing);
+        parser = Jwts.parser().keyLocator(keyRing::locate).build();
+
+        user = User.withUsername("benchmark-user").password("unused").build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+}
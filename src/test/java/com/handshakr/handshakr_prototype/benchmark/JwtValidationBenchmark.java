@@ -0,0 +1,81 @@
+package com.handshakr.handshakr_prototype.benchmark;
+
+import com.handshakr.handshakr_prototype.security.auth.JwtServiceImpl;
+import com.handshakr.handshakr_prototype.security.auth.TokenClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of validating the JWT cookie in {@code JwtAuthenticationFilter}.
+ *
+ * <ul>
+ *     <li>{@code legacyTripleParse} - the former filter path: {@code extractUsername} followed by
+ *     {@code isTokenValid}, three full parses each re-decoding the secret</li>
+ *     <li>{@code singleParse} - one parse with a prebuilt parser, i.e. a cache miss</li>
+ *     <li>{@code cachedValidation} - {@link JwtServiceImpl#validateToken} for a token seen before</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtValidationBenchmark {
+
+    private String secretKey;
+    private String token;
+    private UserDetails user;
+    private JwtParser parser;
+    private JwtServiceImpl jwtService;
+
+    @Setup
+    public void setUp() {
+        secretKey = Base64.getEncoder().encodeToString(Jwts.SIG.HS256.key().build().getEncoded());
+        jwtService = new JwtServiceImpl();
+        jwtService.setSecretKey(secretKey);
+
+        user = User.withUsername("benchmark-user").password("unused").build();
+        token = jwtService.generateToken(user);
+        parser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey))).build();
+        jwtService.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String username = legacyParse(token).getSubject();
+        return Objects.equals(username, user.getUsername())
+                && Objects.equals(legacyParse(token).getSubject(), user.getUsername())
+                && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public Claims singleParse() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Optional<TokenClaims> cachedValidation() {
+        return jwtService.validateToken(token);
+    }
+
+    private Claims legacyParse(String jwt) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .build()
+                .parseSignedClaims(jwt)
+                .getPayload();
+    }
+}
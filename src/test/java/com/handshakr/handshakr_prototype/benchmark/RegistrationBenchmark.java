@@ -0,0 +1,106 @@
+package com.handshakr.handshakr_prototype.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the database cost of registering a user against a real PostgreSQL (requires Docker).
+ *
+ * <ul>
+ *     <li>{@code checkThenInsert} - the former flow: {@code existsByUsername}, {@code existsByEmail},
+ *     then the insert, three round trips</li>
+ *     <li>{@code singleInsert} - the current flow: one insert guarded by the unique constraints</li>
+ * </ul>
+ *
+ * <p>Password hashing is left out because it is identical in both flows. Run with {@code -t} to add
+ * concurrent registrations; each thread uses its own connection.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RegistrationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Database {
+        final AtomicLong sequence = new AtomicLong();
+        PostgreSQLContainer<?> postgres;
+
+        @Setup
+        public void start() throws SQLException {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+            try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+                statement.execute("""
+                        create table users (
+                            id bigserial primary key,
+                            username varchar(255) not null constraint uk_users_username unique,
+                            email varchar(255) not null constraint uk_users_email unique,
+                            password varchar(255) not null)""");
+            }
+        }
+
+        @TearDown
+        public void stop() {
+            postgres.stop();
+        }
+
+        Connection connect() throws SQLException {
+            return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        Connection connection;
+        PreparedStatement usernameExists;
+        PreparedStatement emailExists;
+        PreparedStatement insert;
+
+        @Setup
+        public void open(Database database) throws SQLException {
+            connection = database.connect();
+            usernameExists = connection.prepareStatement("select exists(select 1 from users where username = ?)");
+            emailExists = connection.prepareStatement("select exists(select 1 from users where email = ?)");
+            insert = connection.prepareStatement("insert into users (username, email, password) values (?, ?, ?)");
+        }
+
+        @TearDown
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int checkThenInsert(Database database, Session session) throws SQLException {
+        long id = database.sequence.incrementAndGet();
+        if (exists(session.usernameExists, "user" + id) || exists(session.emailExists, id + "@test.com")) {
+            return 0;
+        }
+        return insert(session, id);
+    }
+
+    @Benchmark
+    public int singleInsert(Database database, Session session) throws SQLException {
+        return insert(session, database.sequence.incrementAndGet());
+    }
+
+    private static boolean exists(PreparedStatement query, String value) throws SQLException {
+        query.setString(1, value);
+        try (ResultSet result = query.executeQuery()) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+
+    private static int insert(Session session, long id) throws SQLException {
+        session.insert.setString(1, "user" + id);
+        session.insert.setString(2, id + "@test.com");
+        session.insert.setString(3, "hash");
+        return session.insert.executeUpdate();
+    }
+}
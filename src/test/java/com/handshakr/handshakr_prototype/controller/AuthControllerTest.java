@@ -5,7 +5,9 @@ import com.handshakr.handshakr_prototype.security.auth.AuthService;
 import com.handshakr.handshakr_prototype.security.auth.JwtService;
 import com.handshakr.handshakr_prototype.security.SecurityConfiguration;
 import com.handshakr.handshakr_prototype.security.filter.JwtAuthenticationFilter;
+import com.handshakr.handshakr_prototype.security.revocation.TokenRevocationService;
 import com.handshakr.handshakr_prototype.user.User;
+import com.handshakr.handshakr_prototype.user.UsernameAvailability;
 import com.handshakr.handshakr_prototype.user.dto.LoginRequest;
 import com.handshakr.handshakr_prototype.user.dto.RegisterRequest;
 import org.junit.jupiter.api.Test;
@@ -53,6 +55,12 @@ class AuthControllerTest {
     @MockitoBean
     private JwtAuthenticationFilter jwtFilter;
 
+    @MockitoBean
+    private UsernameAvailability usernameAvailability;
+
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
     // ===== TEST CONFIGURATIONS =====
     @TestConfiguration
     class MockAuthBeans {
@@ -70,8 +78,9 @@ class AuthControllerTest {
     @TestConfiguration
     class TestSecurityConfig extends SecurityConfiguration {
 
-        public TestSecurityConfig(AuthenticationProvider authProvider, JwtAuthenticationFilter jwtFilter) {
-            super(authProvider, jwtFilter);
+        public TestSecurityConfig(AuthenticationProvider authProvider, JwtAuthenticationFilter jwtFilter,
+                                  TokenRevocationService tokenRevocationService) {
+            super(authProvider, jwtFilter, tokenRevocationService);
         }
 
         @Override
@@ -122,7 +131,7 @@ class AuthControllerTest {
         UserDetails userDetails = new User("user", "encodedPass", "user@test.com");
         Authentication auth = new UsernamePasswordAuthenticationToken(userDetails, null);
 
-        when(authService.authenticate(any())).thenReturn(userDetails);
+        when(authService.authenticate(any(), any())).thenReturn(userDetails);
         when(jwtService.generateToken(any())).thenReturn("mock.jwt.token");
 
         mockMvc.perform(post("/auth/login")
@@ -154,7 +163,7 @@ class AuthControllerTest {
     void login_LockedAccount_Returns403() throws Exception {
         LoginRequest request = new LoginRequest("lockedUser", "password");
 
-        when(authService.authenticate(any()))
+        when(authService.authenticate(any(), any()))
                 .thenThrow(new AccountLockedException("Account locked"));
 
         mockMvc.perform(post("/auth/login")
@@ -3,29 +3,49 @@ package com.handshakr.handshakr_prototype.controller;
 import com.handshakr.handshakr_prototype.exceptions.handshake.HandshakeAlreadyExistsException;
 import com.handshakr.handshakr_prototype.exceptions.handshake.HandshakeNotFoundException;
 import com.handshakr.handshakr_prototype.exceptions.handshake.HandshakeServiceUnavailableException;
+import com.handshakr.handshakr_prototype.exceptions.handshake.HandshakeVersionMismatchException;
+import com.handshakr.handshakr_prototype.handshake.HandshakeEventHub;
+import com.handshakr.handshakr_prototype.handshake.HandshakeListVersion;
 import com.handshakr.handshakr_prototype.handshake.HandshakeService;
 import com.handshakr.handshakr_prototype.handshake.HandshakeStatus;
 import com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeInbox;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeTransitionResult;
+import com.handshakr.handshakr_prototype.response.CursorPage;
 import com.handshakr.handshakr_prototype.security.auth.JwtService;
+import com.handshakr.handshakr_prototype.security.auth.UserVersionTable;
+import com.handshakr.handshakr_prototype.security.revocation.TokenRevocationService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(HandshakeController.class)
@@ -38,9 +58,18 @@ class HandshakeControllerTest {
     @MockitoBean
     private HandshakeService handshakeService;
 
+    @MockitoBean
+    private HandshakeEventHub eventHub;
+
     @MockitoBean
     private JwtService jwtService;
 
+    @MockitoBean
+    private UserVersionTable userVersionTable;
+
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     // ========== GET BY NAME TESTS ==========
@@ -58,6 +87,51 @@ class HandshakeControllerTest {
         verify(handshakeService).getHandshakeByName("test-handshake");
     }
 
+    @Test
+    @WithMockUser
+    void getHandshakeByName_Exists_ReturnsVersionAsETag() throws Exception {
+        when(handshakeService.getHandshakeByName("test-handshake")).thenReturn(createTestHandshake("test-handshake"));
+
+        mockMvc.perform(get("/handshake/get-handshake-by-name/test-handshake"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    @Test
+    @WithMockUser
+    void getHandshakeByName_CurrentIfNoneMatch_Returns304() throws Exception {
+        when(handshakeService.getHandshakeByName("test-handshake")).thenReturn(createTestHandshake("test-handshake"));
+
+        mockMvc.perform(get("/handshake/get-handshake-by-name/test-handshake")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+    }
+
+    @Test
+    @WithMockUser
+    void getHandshakeByName_IfModifiedSinceOnly_ReturnsHandshake() throws Exception {
+        when(handshakeService.getHandshakeByName("test-handshake")).thenReturn(createTestHandshake("test-handshake"));
+
+        mockMvc.perform(get("/handshake/get-handshake-by-name/test-handshake")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Sat, 01 Jan 2050 00:00:00 GMT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.handshakeName").value("test-handshake"));
+    }
+
+    @Test
+    @WithMockUser
+    void getHandshakeByName_FinalStatus_LongCacheable() throws Exception {
+        HandshakeDto completed = new HandshakeDto("done", "encrypted details", Instant.now(), Instant.now(),
+                HandshakeStatus.COMPLETED, "initiatorUser", "acceptorUser", 5);
+        when(handshakeService.getHandshakeByName("done")).thenReturn(completed);
+
+        mockMvc.perform(get("/handshake/get-handshake-by-name/done"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+
     @Test
     void getHandshakeByName_NotFound_Returns404() throws Exception {
         when(handshakeService.getHandshakeByName("nonexistent"))
@@ -87,13 +161,98 @@ class HandshakeControllerTest {
                 createTestHandshake("handshake1"),
                 createTestHandshake("handshake2")
         );
-        when(handshakeService.getHandshakesByAcceptor("acceptorUser")).thenReturn(handshakes);
+        when(handshakeService.getHandshakesByAcceptorVersion("acceptorUser"))
+                .thenReturn(new HandshakeListVersion(2, 1));
+        when(handshakeService.getHandshakesByAcceptor("acceptorUser", null, 20))
+                .thenReturn(new CursorPage<>(handshakes, null));
 
         mockMvc.perform(get("/handshake/get-handshakes-by-acceptor/acceptorUser"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data.length()").value(2));
     }
 
+    @Test
+    @WithMockUser
+    void getHandshakesByInitiator_Unchanged_Returns304WithoutReadingPage() throws Exception {
+        when(handshakeService.getHandshakesByInitiatorVersion("initiatorUser"))
+                .thenReturn(new HandshakeListVersion(2, 3));
+
+        mockMvc.perform(get("/handshake/get-handshakes-by-initiator/initiatorUser")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"2-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"2-3\""));
+
+        verify(handshakeService, never()).getHandshakesByInitiator(any(), any(), anyInt());
+    }
+
+    @Test
+    @WithMockUser
+    void getHandshakesByInitiator_Changed_ReturnsPageWithWeakETag() throws Exception {
+        when(handshakeService.getHandshakesByInitiatorVersion("initiatorUser"))
+                .thenReturn(new HandshakeListVersion(2, 4));
+        when(handshakeService.getHandshakesByInitiator("initiatorUser", null, 20))
+                .thenReturn(new CursorPage<>(List.of(createTestHandshake("handshake1")), null));
+
+        mockMvc.perform(get("/handshake/get-handshakes-by-initiator/initiatorUser")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"2-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"2-4\""))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$.data.length()").value(1));
+    }
+
+    // ========== STREAMING TESTS ==========
+    @Test
+    @WithMockUser
+    void getAllHandshakesByInitiator_MultipleExist_StreamsEnvelopeWithEveryHandshake() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<HandshakeDto> action = invocation.getArgument(1);
+            action.accept(createTestHandshake("handshake1"));
+            action.accept(createTestHandshake("handshake2"));
+            return null;
+        }).when(handshakeService).forEachHandshakeByInitiator(eq("initiatorUser"), any());
+
+        MvcResult result = mockMvc.perform(get("/handshake/get-all-handshakes-by-initiator/initiatorUser"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.httpStatus").value(200))
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[1].handshakeName").value("handshake2"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void getAllHandshakesByAcceptor_NoneExist_StreamsEmptyList() throws Exception {
+        MvcResult result = mockMvc.perform(get("/handshake/get-all-handshakes-by-acceptor/acceptorUser"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(0));
+
+        verify(handshakeService).forEachHandshakeByAcceptor(eq("acceptorUser"), any());
+    }
+
+    @Test
+    @WithMockUser
+    void getAllHandshakesByInitiator_FailsBeforeFirstHandshake_ReturnsErrorResponse() throws Exception {
+        doThrow(new HandshakeServiceUnavailableException("Failed to retrieve handshakes by initiator"))
+                .when(handshakeService).forEachHandshakeByInitiator(eq("initiatorUser"), any());
+
+        MvcResult result = mockMvc.perform(get("/handshake/get-all-handshakes-by-initiator/initiatorUser"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable());
+    }
+
     // ========== STATUS UPDATE TESTS ==========
     @Test
     void acceptHandshake_ValidRequest_UpdatesStatus() throws Exception {
@@ -102,7 +261,7 @@ class HandshakeControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("Handshake accepted"));
 
-        verify(handshakeService).updateHandshake("test-handshake", HandshakeStatus.ACCEPTED);
+        verify(handshakeService).updateHandshake("test-handshake", HandshakeStatus.ACCEPTED, null);
     }
 
     @Test
@@ -111,25 +270,97 @@ class HandshakeControllerTest {
                         .param("handshakeName", "test-handshake"))
                 .andExpect(status().isOk());
 
-        verify(handshakeService).updateHandshake("test-handshake", HandshakeStatus.CANCELLED);
+        verify(handshakeService).updateHandshake("test-handshake", HandshakeStatus.CANCELLED, null);
     }
 
     @Test
     void completeHandshake_AlreadyCompleted_ReturnsConflict() throws Exception {
         doThrow(new HandshakeAlreadyExistsException("Already completed"))
-                .when(handshakeService).updateHandshake("completed-handshake", HandshakeStatus.COMPLETED);
+                .when(handshakeService).updateHandshake("completed-handshake", HandshakeStatus.COMPLETED, null);
 
         mockMvc.perform(put("/handshake/complete-handshake")
                         .param("handshakeName", "completed-handshake"))
                 .andExpect(status().isConflict());
 
-        verify(handshakeService).updateHandshake("completed-handshake", HandshakeStatus.COMPLETED);
+        verify(handshakeService).updateHandshake("completed-handshake", HandshakeStatus.COMPLETED, null);
+    }
+
+    @Test
+    @WithMockUser
+    void acceptHandshake_IfMatch_UpdatesThatVersionAndReturnsNext() throws Exception {
+        mockMvc.perform(put("/handshake/accept-handshake")
+                        .param("handshakeName", "test-handshake")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+
+        verify(handshakeService).updateHandshake("test-handshake", HandshakeStatus.ACCEPTED, 3L);
+    }
+
+    @Test
+    @WithMockUser
+    void cancelHandshake_StaleIfMatch_Returns412() throws Exception {
+        doThrow(new HandshakeVersionMismatchException("Handshake 'test-handshake' is at version 4, not 3"))
+                .when(handshakeService).updateHandshake("test-handshake", HandshakeStatus.CANCELLED, 3L);
+
+        mockMvc.perform(put("/handshake/cancel-handshake")
+                        .param("handshakeName", "test-handshake")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .with(csrf()))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @WithMockUser
+    void acceptHandshake_WeakIfMatch_NeverMatches() throws Exception {
+        mockMvc.perform(put("/handshake/accept-handshake")
+                        .param("handshakeName", "test-handshake")
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .with(csrf()));
+
+        verify(handshakeService).updateHandshake("test-handshake", HandshakeStatus.ACCEPTED, -1L);
+    }
+
+    @Test
+    @WithMockUser
+    void updateHandshakes_ReportsEachHandshake() throws Exception {
+        when(handshakeService.updateHandshakes(List.of("hs1", "hs2"), HandshakeStatus.ACCEPTED)).thenReturn(List.of(
+                HandshakeTransitionResult.updated("hs1"),
+                HandshakeTransitionResult.failed("hs2", "Handshake 'hs2' cannot move from CANCELLED to ACCEPTED")));
+
+        mockMvc.perform(put("/handshake/update-handshakes")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"handshakeNames\": [\"hs1\", \"hs2\"], \"status\": \"ACCEPTED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("1 of 2 handshakes updated"))
+                .andExpect(jsonPath("$.data[1].updated").value(false));
+    }
+
+    @Test
+    @WithMockUser(username = "user1")
+    void getInbox_FiltersForAuthenticatedUser() throws Exception {
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+        when(handshakeService.getInboxVersion("user1")).thenReturn(new HandshakeListVersion(4, 0));
+        when(handshakeService.getInbox("user1", Set.of(HandshakeStatus.CREATED, HandshakeStatus.PENDING),
+                from, null, null, 20))
+                .thenReturn(new HandshakeInbox(List.of(), null,
+                        Map.of(HandshakeStatus.CREATED, 3L), Map.of(HandshakeStatus.PENDING, 1L)));
+
+        mockMvc.perform(get("/handshake/inbox")
+                        .param("status", "CREATED", "PENDING")
+                        .param("from", "2025-01-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.sentCounts.CREATED").value(3))
+                .andExpect(jsonPath("$.data.receivedCounts.PENDING").value(1))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
     }
 
     @Test
     void cancelHandshake_NotExists_ReturnsNotFound() throws Exception {
         doThrow(new HandshakeNotFoundException("Not found"))
-                .when(handshakeService).updateHandshake("nonexistent", HandshakeStatus.CANCELLED);
+                .when(handshakeService).updateHandshake("nonexistent", HandshakeStatus.CANCELLED, null);
 
         mockMvc.perform(put("/handshake/cancel-handshake")
                         .param("handshakeName", "nonexistent"))
@@ -162,7 +393,8 @@ class HandshakeControllerTest {
                 Instant.now().plus(1, ChronoUnit.HOURS),
                 HandshakeStatus.PENDING,
                 "initiatorUser",
-                "acceptorUser"
+                "acceptorUser",
+                3
         );
     }
 
@@ -76,13 +76,7 @@ class UserControllerTest {
     @WithMockUser(username = "initiator")
     void createHandshake_ValidRequest_CreatesHandshake() throws Exception {
         CreateHandshakeRequest request = new CreateHandshakeRequest(
-                "test-handshake", "receiver", "Test handshake");
-
-        User initiator = new User("initiator", "init@test.com", "pass");
-        User receiver = new User("receiver", "rec@test.com", "pass");
-
-        when(userService.findByUsername("initiator")).thenReturn(initiator);
-        when(userService.findByUsername("receiver")).thenReturn(receiver);
+                "test-handshake", "Test handshake", "receiver");
 
         HandshakeDto mockHandshake = new HandshakeDto(
                 "test-handshake",
@@ -90,9 +84,10 @@ class UserControllerTest {
                 Instant.now(),
                 Instant.now().plus(1, ChronoUnit.HOURS),
                 HandshakeStatus.PENDING,
-                "initiatorUser",
-                "acceptorUser");
-        when(handshakeService.getHandshakeByName("test-handshake")).thenReturn(mockHandshake);
+                "initiator",
+                "receiver",
+                0);
+        when(handshakeService.createHandshake(request, "initiator")).thenReturn(mockHandshake);
 
         mockMvc.perform(post("/users/create-handshake")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -0,0 +1,123 @@
+package com.handshakr.handshakr_prototype.repository;
+
+import com.handshakr.handshakr_prototype.exceptions.HandshakeExceptionFactory;
+import com.handshakr.handshakr_prototype.exceptions.UserExceptionFactory;
+import com.handshakr.handshakr_prototype.handshake.HandshakeCache;
+import com.handshakr.handshakr_prototype.handshake.HandshakeCacheBroadcast;
+import com.handshakr.handshakr_prototype.handshake.HandshakePersistenceConfiguration;
+import com.handshakr.handshakr_prototype.handshake.HandshakeRepository;
+import com.handshakr.handshakr_prototype.handshake.HandshakeService;
+import com.handshakr.handshakr_prototype.handshake.HandshakeServiceImpl;
+import com.handshakr.handshakr_prototype.handshake.HandshakeStatus;
+import com.handshakr.handshakr_prototype.handshake.dto.CreateHandshakeRequest;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto;
+import com.handshakr.handshakr_prototype.handshake.outbox.HandshakeOutboxRepository;
+import com.handshakr.handshakr_prototype.user.User;
+import com.handshakr.handshakr_prototype.user.UserRepository;
+import com.handshakr.handshakr_prototype.user.UserServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Checks that a handshake changed on one node is evicted from the cache of another node sharing the database.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({HandshakeServiceImpl.class, HandshakeExceptionFactory.class, UserServiceImpl.class, UserExceptionFactory.class,
+        HandshakePersistenceConfiguration.class, HandshakeCache.class, HandshakeCacheBroadcast.class,
+        SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HandshakeCacheBroadcastTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private HandshakeService handshakeService;
+
+    @Autowired
+    private HandshakeRepository handshakeRepository;
+
+    @Autowired
+    private HandshakeOutboxRepository outbox;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private HandshakeCache otherNodeCache;
+    private HandshakeCacheBroadcast otherNode;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(new User("initiator", "initiator@test.com", "password"));
+        userRepository.save(new User("receiver", "receiver@test.com", "password"));
+        handshakeService.createHandshake(new CreateHandshakeRequest("hs", "details", "receiver"), "initiator");
+
+        otherNodeCache = new HandshakeCache(1_000_000, 300, new SimpleMeterRegistry());
+        otherNode = new HandshakeCacheBroadcast(dataSource, otherNodeCache, 100, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        otherNode.stop();
+        outbox.deleteAll();
+        handshakeRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void updateHandshake_CachedOnOtherNode_EvictedThere() {
+        Function<String, HandshakeDto> loader = name -> {
+            loads.incrementAndGet();
+            return handshakeRepository.findDtoByHandshakeName(name).orElse(null);
+        };
+        otherNodeCache.get("hs", loader);
+        otherNode.start();
+        // The other node clears its cache once it is listening, so later evictions can only come from notifications
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            int before = loads.get();
+            otherNodeCache.get("hs", loader);
+            return loads.get() > before;
+        });
+        assertThat(otherNodeCache.get("hs", loader).handshakeStatus()).isEqualTo(HandshakeStatus.CREATED);
+
+        handshakeService.updateHandshake("hs", HandshakeStatus.ACCEPTED, 0L);
+
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> otherNodeCache.get("hs", loader).handshakeStatus() == HandshakeStatus.ACCEPTED);
+    }
+}
@@ -0,0 +1,163 @@
+package com.handshakr.handshakr_prototype.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that every {@code HandshakeRepository} access path is planned as an index scan once the table holds
+ * production-like volumes. The schema comes from the Flyway migrations, and Hibernate validates its mapping
+ * against it. Each case is the SQL equivalent of a repository query.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HandshakeIndexUsageTest {
+
+    private static final int HANDSHAKES = 200_000;
+    private static final int USERS = 200;
+    private static final Timestamp CURSOR_DATE = Timestamp.from(Instant.now().minusSeconds(HANDSHAKES / 2));
+    private static final Timestamp EPOCH = Timestamp.from(Instant.EPOCH);
+
+    // findInbox with every status and an open date range, seeking past a cursor
+    private static final String INBOX_SQL = """
+            (select * from handshakes
+             where initiator_username = ? and handshake_status in (0, 1, 2, 3, 4, 5)
+               and created_date >= ? and (created_date, id) < (?, ?)
+             order by created_date desc, id desc limit 21)
+            union all
+            (select * from handshakes
+             where receiver_username = ? and initiator_username <> ? and handshake_status in (0, 1, 2, 3, 4, 5)
+               and created_date >= ? and (created_date, id) < (?, ?)
+             order by created_date desc, id desc limit 21)
+            order by created_date desc, id desc limit 21""";
+    private static final Object[] INBOX_PARAMS =
+            {"user7", EPOCH, CURSOR_DATE, HANDSHAKES / 2, "user7", "user7", EPOCH, CURSOR_DATE, HANDSHAKES / 2};
+
+    // findInboxVersion, each direction read off its own index
+    private static final String INBOX_VERSION_SQL = """
+            select count(*), coalesce(sum(version), 0) from (
+                select version from handshakes where initiator_username = ?
+                union all
+                select version from handshakes where receiver_username = ?) r""";
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        // One in fifty handshakes is still open, roughly the production mix, spread evenly across users
+        jdbcTemplate.update("""
+                insert into handshakes (handshake_name, created_date, handshake_status,
+                                        initiator_username, receiver_username)
+                select 'handshake-' || g,
+                       now() - g * interval '1 second',
+                       case when (g / ?) % 50 = 0 then (g / ?) % 2 else 2 + g % 4 end,
+                       'user' || (g % ?),
+                       'user' || ((g + 1) % ?)
+                from generate_series(1, ?) g""", USERS, USERS * 50, USERS, USERS, HANDSHAKES);
+        jdbcTemplate.execute("analyze handshakes");
+    }
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                Arguments.of("findByHandshakeName", "uk_handshakes_handshake_name",
+                        "select * from handshakes where handshake_name = ?",
+                        new Object[]{"handshake-42"}),
+                Arguments.of("findAllByInitiatorUsername", "idx_handshakes_initiator_created",
+                        "select * from handshakes where initiator_username = ?",
+                        new Object[]{"user7"}),
+                Arguments.of("findAllByReceiverUsername", "idx_handshakes_receiver_created",
+                        "select * from handshakes where receiver_username = ?",
+                        new Object[]{"user7"}),
+                Arguments.of("findByInitiatorUsernameOrderByCreatedDateDescIdDesc", "idx_handshakes_initiator_created",
+                        "select * from handshakes where initiator_username = ? "
+                                + "order by created_date desc, id desc limit 21",
+                        new Object[]{"user7"}),
+                Arguments.of("findByInitiatorUsernameAfter", "idx_handshakes_initiator_created",
+                        "select * from handshakes where initiator_username = ? "
+                                + "and (created_date < ? or (created_date = ? and id < ?)) "
+                                + "order by created_date desc, id desc limit 21",
+                        new Object[]{"user7", CURSOR_DATE, CURSOR_DATE, HANDSHAKES / 2}),
+                Arguments.of("findByReceiverUsernameOrderByCreatedDateDescIdDesc", "idx_handshakes_receiver_created",
+                        "select * from handshakes where receiver_username = ? "
+                                + "order by created_date desc, id desc limit 21",
+                        new Object[]{"user7"}),
+                Arguments.of("findByReceiverUsernameAfter", "idx_handshakes_receiver_created",
+                        "select * from handshakes where receiver_username = ? "
+                                + "and (created_date < ? or (created_date = ? and id < ?)) "
+                                + "order by created_date desc, id desc limit 21",
+                        new Object[]{"user7", CURSOR_DATE, CURSOR_DATE, HANDSHAKES / 2}),
+                Arguments.of("findInbox (sent)", "idx_handshakes_initiator_created", INBOX_SQL, INBOX_PARAMS),
+                Arguments.of("findInbox (received)", "idx_handshakes_receiver_created", INBOX_SQL, INBOX_PARAMS),
+                Arguments.of("countInbox", "idx_handshakes_receiver_created",
+                        "select initiator_username = ?, handshake_status, count(*) from handshakes "
+                                + "where (initiator_username = ? or receiver_username = ?) "
+                                + "and created_date >= ? and created_date < ? group by 1, 2",
+                        new Object[]{"user7", "user7", "user7", EPOCH, CURSOR_DATE}),
+                Arguments.of("findListVersionByInitiatorUsername", "idx_handshakes_initiator_created",
+                        "select count(id), coalesce(sum(version), 0) from handshakes where initiator_username = ?",
+                        new Object[]{"user7"}),
+                Arguments.of("findListVersionByReceiverUsername", "idx_handshakes_receiver_created",
+                        "select count(id), coalesce(sum(version), 0) from handshakes where receiver_username = ?",
+                        new Object[]{"user7"}),
+                Arguments.of("findInboxVersion (sent)", "idx_handshakes_initiator_created",
+                        INBOX_VERSION_SQL, new Object[]{"user7", "user7"}),
+                Arguments.of("findInboxVersion (received)", "idx_handshakes_receiver_created",
+                        INBOX_VERSION_SQL, new Object[]{"user7", "user7"}),
+                Arguments.of("open handshakes by receiver", "idx_handshakes_receiver_open",
+                        "select * from handshakes where receiver_username = ? and handshake_status in (0, 1) "
+                                + "order by created_date desc, id desc limit 21",
+                        new Object[]{"user7"}),
+                Arguments.of("open handshakes by initiator", "idx_handshakes_initiator_open",
+                        "select * from handshakes where initiator_username = ? and handshake_status = 1 "
+                                + "order by created_date desc, id desc limit 21",
+                        new Object[]{"user7"}));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void repositoryQuery_LargeTable_UsesIndex(String query, String expectedIndex, String sql, Object[] params) {
+        String plan = jdbcTemplate.queryForList("explain " + sql, String.class, params)
+                .stream()
+                .collect(Collectors.joining("\n"));
+
+        assertThat(plan)
+                .as("plan for %s", query)
+                .contains(expectedIndex)
+                .doesNotContain("Seq Scan");
+    }
+}
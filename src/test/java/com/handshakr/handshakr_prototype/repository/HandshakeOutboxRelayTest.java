@@ -0,0 +1,166 @@
+package com.handshakr.handshakr_prototype.repository;
+
+import com.handshakr.handshakr_prototype.exceptions.HandshakeExceptionFactory;
+import com.handshakr.handshakr_prototype.exceptions.UserExceptionFactory;
+import com.handshakr.handshakr_prototype.handshake.HandshakeCache;
+import com.handshakr.handshakr_prototype.handshake.HandshakePersistenceConfiguration;
+import com.handshakr.handshakr_prototype.handshake.HandshakeRepository;
+import com.handshakr.handshakr_prototype.handshake.HandshakeService;
+import com.handshakr.handshakr_prototype.handshake.HandshakeServiceImpl;
+import com.handshakr.handshakr_prototype.handshake.HandshakeStatus;
+import com.handshakr.handshakr_prototype.handshake.dto.CreateHandshakeRequest;
+import com.handshakr.handshakr_prototype.handshake.outbox.HandshakeEventType;
+import com.handshakr.handshakr_prototype.handshake.outbox.HandshakeOutboxEvent;
+import com.handshakr.handshakr_prototype.handshake.outbox.HandshakeOutboxRelay;
+import com.handshakr.handshakr_prototype.handshake.outbox.HandshakeOutboxRepository;
+import com.handshakr.handshakr_prototype.user.User;
+import com.handshakr.handshakr_prototype.user.UserRepository;
+import com.handshakr.handshakr_prototype.user.UserServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Checks that handshake changes are recorded in the outbox with the change itself, and that relays on several
+ * nodes drain it in parallel without publishing any event twice.
+ */
+@DataJpaTest(properties = "handshake.outbox.relay-interval-ms=3600000")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({HandshakeServiceImpl.class, HandshakeExceptionFactory.class, UserServiceImpl.class, UserExceptionFactory.class,
+        HandshakePersistenceConfiguration.class, HandshakeCache.class, SimpleMeterRegistry.class, HandshakeOutboxRelay.class,
+        HandshakeOutboxRelayTest.Consumer.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HandshakeOutboxRelayTest {
+
+    private static final int RELAYS = 4;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private HandshakeService handshakeService;
+
+    @Autowired
+    private HandshakeOutboxRelay relay;
+
+    @Autowired
+    private HandshakeOutboxRepository outbox;
+
+    @Autowired
+    private HandshakeRepository handshakeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private Consumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(new User("initiator", "initiator@test.com", "password"));
+        userRepository.save(new User("receiver", "receiver@test.com", "password"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        outbox.deleteAll();
+        handshakeRepository.deleteAll();
+        userRepository.deleteAll();
+        consumer.received.clear();
+    }
+
+    @Test
+    void changes_RecordedWithSnapshotAndRelayedOnce() {
+        handshakeService.createHandshake(new CreateHandshakeRequest("hs", "details", "receiver"), "initiator");
+        handshakeService.updateHandshake("hs", HandshakeStatus.ACCEPTED, 0L);
+
+        assertThat(relay.relay()).isEqualTo(2);
+        assertThat(relay.relay()).isZero();
+
+        assertThat(consumer.received)
+                .extracting(HandshakeOutboxEvent::getEventType, HandshakeOutboxEvent::getHandshakeStatus,
+                        HandshakeOutboxEvent::getVersion)
+                .containsExactly(
+                        tuple(HandshakeEventType.CREATED, HandshakeStatus.CREATED, 0L),
+                        tuple(HandshakeEventType.STATUS_CHANGED, HandshakeStatus.ACCEPTED, 1L));
+        assertThat(outbox.findAll()).allSatisfy(event -> assertThat(event.getPublishedAt()).isNotNull());
+    }
+
+    @Test
+    void parallelRelays_ClaimDisjointBatches() throws Exception {
+        handshakeService.createHandshakes(IntStream.range(0, 1_000)
+                .mapToObj(i -> new CreateHandshakeRequest("bulk" + i, "details", "receiver"))
+                .toList(), "initiator");
+
+        ExecutorService pool = Executors.newFixedThreadPool(RELAYS);
+        try {
+            List<Future<Integer>> runs = IntStream.range(0, RELAYS)
+                    .mapToObj(i -> pool.submit(() -> {
+                        int relayed = 0;
+                        int batch;
+                        while ((batch = relay.relay()) > 0) {
+                            relayed += batch;
+                        }
+                        return relayed;
+                    }))
+                    .toList();
+            int total = 0;
+            for (Future<Integer> run : runs) {
+                total += run.get();
+            }
+            assertThat(total).isEqualTo(1_000);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(consumer.received).hasSize(1_000)
+                .extracting(HandshakeOutboxEvent::getId)
+                .doesNotHaveDuplicates();
+    }
+
+    /**
+     * Stands in for a downstream consumer such as notifications.
+     */
+    @TestConfiguration
+    static class Consumer {
+        final Queue<HandshakeOutboxEvent> received = new ConcurrentLinkedQueue<>();
+
+        @EventListener
+        void onEvent(HandshakeOutboxEvent event) {
+            received.add(event);
+        }
+    }
+}
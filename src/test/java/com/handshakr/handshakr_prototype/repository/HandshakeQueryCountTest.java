@@ -0,0 +1,229 @@
+package com.handshakr.handshakr_prototype.repository;
+
+import com.handshakr.handshakr_prototype.exceptions.HandshakeExceptionFactory;
+import com.handshakr.handshakr_prototype.exceptions.UserExceptionFactory;
+import com.handshakr.handshakr_prototype.handshake.Handshake;
+import com.handshakr.handshakr_prototype.handshake.HandshakeCache;
+import com.handshakr.handshakr_prototype.handshake.HandshakeListVersion;
+import com.handshakr.handshakr_prototype.handshake.HandshakePersistenceConfiguration;
+import com.handshakr.handshakr_prototype.handshake.HandshakeRepository;
+import com.handshakr.handshakr_prototype.handshake.HandshakeService;
+import com.handshakr.handshakr_prototype.handshake.HandshakeServiceImpl;
+import com.handshakr.handshakr_prototype.handshake.HandshakeState;
+import com.handshakr.handshakr_prototype.handshake.HandshakeStatus;
+import com.handshakr.handshakr_prototype.handshake.dto.CreateHandshakeRequest;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeCreationResult;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeInbox;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeTransitionResult;
+import com.handshakr.handshakr_prototype.response.CursorPage;
+import com.handshakr.handshakr_prototype.user.User;
+import com.handshakr.handshakr_prototype.user.UserServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements behind handshake reads and creation, which must not grow with the number of
+ * handshakes and users involved.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({HandshakeServiceImpl.class, HandshakeExceptionFactory.class, UserServiceImpl.class, UserExceptionFactory.class,
+        HandshakePersistenceConfiguration.class, HandshakeCache.class, SimpleMeterRegistry.class})
+class HandshakeQueryCountTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private HandshakeService handshakeService;
+
+    @Autowired
+    private HandshakeRepository handshakeRepository;
+
+    @Autowired
+    private HandshakeCache handshakeCache;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User initiator = entityManager.persist(new User("initiator", "initiator@test.com", "password"));
+        for (int i = 0; i < 10; i++) {
+            User receiver = entityManager.persist(new User("receiver" + i, "receiver" + i + "@test.com", "password"));
+            entityManager.persist(new Handshake(
+                    "handshake" + i, "encrypted details", "initiator", receiver.getUsername(), initiator, receiver));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Each test's changes are rolled back, which never evicts what it cached
+        IntStream.range(0, 10).forEach(i -> handshakeCache.invalidate("handshake" + i));
+    }
+
+    @Test
+    void getHandshakesByInitiator_ExecutesOneStatement() {
+        CursorPage<HandshakeDto> page = handshakeService.getHandshakesByInitiator("initiator", null, 5);
+
+        assertThat(page.items()).hasSize(5);
+        assertThat(page.nextCursor()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void getHandshakesByInitiator_NextPage_ExecutesOneStatement() {
+        String cursor = handshakeService.getHandshakesByInitiator("initiator", null, 5).nextCursor();
+        statistics.clear();
+
+        CursorPage<HandshakeDto> page = handshakeService.getHandshakesByInitiator("initiator", cursor, 5);
+
+        assertThat(page.items()).hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getInbox_ExecutesPageAndCountStatements() {
+        HandshakeInbox sent = handshakeService.getInbox("initiator", null, null, null, null, 5);
+
+        assertThat(sent.items()).hasSize(5);
+        assertThat(sent.nextCursor()).isNotNull();
+        assertThat(sent.sentCounts()).containsEntry(HandshakeStatus.CREATED, 10L);
+        // One statement for the merged page, one for the grouped counts
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        HandshakeInbox received = handshakeService.getInbox("receiver3", null, null, null, null, 5);
+
+        assertThat(received.items()).extracting(HandshakeDto::handshakeName).containsExactly("handshake3");
+        assertThat(received.receivedCounts()).containsEntry(HandshakeStatus.CREATED, 1L);
+        assertThat(received.sentCounts()).containsEntry(HandshakeStatus.CREATED, 0L);
+    }
+
+    @Test
+    void getHandshakeByName_ExecutesOneStatement() {
+        assertThat(handshakeService.getHandshakeByName("handshake3").acceptorUsername()).isEqualTo("receiver3");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void getInboxVersion_ExecutesOneStatementWithoutLoadingHandshakes() {
+        HandshakeListVersion version = handshakeService.getInboxVersion("receiver3");
+
+        assertThat(version.count()).isEqualTo(1);
+        assertThat(version.versionSum()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void getHandshakeByName_RepeatedRead_ServedFromCache() {
+        handshakeService.getHandshakeByName("handshake4");
+        handshakeService.getHandshakeByName("handshake4");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void createHandshake_SelectsUsersOnceAndInserts() {
+        HandshakeDto created = handshakeService.createHandshake(
+                new CreateHandshakeRequest("new-handshake", "encrypted details", "receiver1"), "initiator");
+
+        assertThat(created.acceptorUsername()).isEqualTo("receiver1");
+        // One select resolving both users, one insert and one outbox event
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void updateHandshakes_AllAllowed_ExecutesOneUpdateAndOneOutboxInsert() {
+        List<String> names = IntStream.range(0, 10).mapToObj(i -> "handshake" + i).toList();
+
+        List<HandshakeTransitionResult> results = handshakeService.updateHandshakes(names, HandshakeStatus.ACCEPTED);
+
+        assertThat(results).allMatch(HandshakeTransitionResult::updated);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(handshakeRepository.findStateByHandshakeName("handshake0").orElseThrow())
+                .isEqualTo(new HandshakeState(HandshakeStatus.ACCEPTED, 1));
+    }
+
+    @Test
+    void updateHandshakes_SomeRejected_AddsOneLookup() {
+        handshakeService.updateHandshakes(List.of("handshake0"), HandshakeStatus.CANCELLED);
+        statistics.clear();
+
+        List<HandshakeTransitionResult> results = handshakeService.updateHandshakes(
+                List.of("handshake0", "handshake1", "missing"), HandshakeStatus.ACCEPTED);
+
+        assertThat(results).extracting(HandshakeTransitionResult::updated).containsExactly(false, true, false);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void createHandshakes_InsertsInOneStatement() {
+        List<CreateHandshakeRequest> requests = IntStream.range(0, 200)
+                .mapToObj(i -> new CreateHandshakeRequest(i == 100 ? "handshake0" : "bulk" + i, "encrypted details",
+                        "receiver" + (i % 10)))
+                .toList();
+
+        List<HandshakeCreationResult> results = handshakeService.createHandshakes(requests, "initiator");
+
+        assertThat(results).filteredOn(HandshakeCreationResult::created).hasSize(199);
+        assertThat(results.get(100).error()).contains("already exists");
+        // One select for the users, one insert that skips the taken name and one for all the outbox events;
+        // inserting one by one would be over 400
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(handshakeRepository.count()).isEqualTo(10 + 199);
+    }
+
+    @Test
+    void findAllByInitiatorUsername_DoesNotLoadUsers() {
+        List<Handshake> handshakes = handshakeRepository.findAllByInitiatorUsername("initiator");
+
+        assertThat(handshakes).hasSize(10);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,152 @@
+package com.handshakr.handshakr_prototype.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.handshakr.handshakr_prototype.exceptions.HandshakeExceptionFactory;
+import com.handshakr.handshakr_prototype.exceptions.UserExceptionFactory;
+import com.handshakr.handshakr_prototype.handshake.HandshakeCache;
+import com.handshakr.handshakr_prototype.handshake.HandshakePersistenceConfiguration;
+import com.handshakr.handshakr_prototype.handshake.HandshakeService;
+import com.handshakr.handshakr_prototype.handshake.HandshakeServiceImpl;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto;
+import com.handshakr.handshakr_prototype.response.StreamingApiResponse;
+import com.handshakr.handshakr_prototype.user.UserService;
+import com.handshakr.handshakr_prototype.user.UserServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streams a million rows through {@link StreamingApiResponse}, which only fits in the heap this test runs with
+ * (see the {@code bounded-heap} surefire execution) if neither the query nor the response holds them all.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({HandshakeServiceImpl.class, HandshakeExceptionFactory.class, UserServiceImpl.class, UserExceptionFactory.class,
+        HandshakePersistenceConfiguration.class, HandshakeCache.class, SimpleMeterRegistry.class})
+class HandshakeStreamingBoundedHeapTest {
+
+    private static final int ROWS = 1_000_000;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HandshakeService handshakeService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void forEachHandshakeByInitiator_MillionHandshakes_StreamsAllInBoundedHeap() throws Exception {
+        jdbcTemplate.update("""
+                insert into handshakes (handshake_name, encrypted_details, created_date, handshake_status,
+                                        initiator_username, receiver_username, version)
+                select 'handshake-' || g, 'encrypted details', now() - g * interval '1 second', 0,
+                       'initiator', 'receiver', 0
+                from generate_series(1, ?) g""", ROWS);
+        AtomicLong streamed = new AtomicLong();
+
+        CapturingOutputStream out = write(new StreamingApiResponse<HandshakeDto>(objectMapper, "Handshakes retrieved",
+                action -> handshakeService.forEachHandshakeByInitiator("initiator", handshake -> {
+                    streamed.incrementAndGet();
+                    action.accept(handshake);
+                })));
+
+        assertThat(streamed).hasValue(ROWS);
+        assertThat(out.head()).startsWith("{\"message\":\"Handshakes retrieved\",\"httpStatus\":200,\"data\":[{")
+                .contains("\"handshakeName\":\"handshake-1\"");
+        assertThat(out.tail()).contains("\"handshakeName\":\"handshake-" + ROWS + "\"").endsWith("}]}");
+    }
+
+    @Test
+    void forEachUsername_MillionUsers_StreamsAllInBoundedHeap() throws Exception {
+        jdbcTemplate.update("""
+                insert into users (id, username, email, password, account_non_expired, account_non_locked,
+                                   credentials_non_expired, enabled)
+                select g, 'user' || g, 'user' || g || '@test.com', 'password', true, true, true, true
+                from generate_series(1, ?) g""", ROWS);
+        AtomicLong streamed = new AtomicLong();
+
+        CapturingOutputStream out = write(new StreamingApiResponse<String>(objectMapper, "Users retrieved successfully",
+                action -> userService.forEachUsername(username -> {
+                    streamed.incrementAndGet();
+                    action.accept(username);
+                })));
+
+        assertThat(streamed).hasValue(ROWS);
+        assertThat(out.head()).startsWith("{\"message\":\"Users retrieved successfully\",\"httpStatus\":200,\"data\":[\"user");
+        assertThat(out.tail()).endsWith("\"]}");
+    }
+
+    private CapturingOutputStream write(StreamingApiResponse<?> response) throws Exception {
+        CapturingOutputStream out = new CapturingOutputStream();
+        response.writeTo(out);
+        return out;
+    }
+
+    /**
+     * Discards what is written except for its first and last bytes.
+     */
+    private static class CapturingOutputStream extends OutputStream {
+        private static final int KEPT = 512;
+
+        private final byte[] head = new byte[KEPT];
+        private final byte[] tail = new byte[KEPT];
+        private long written;
+
+        @Override
+        public void write(int b) {
+            if (written < KEPT) {
+                head[(int) written] = (byte) b;
+            }
+            tail[(int) (written % KEPT)] = (byte) b;
+            written++;
+        }
+
+        String head() {
+            return new String(head, 0, (int) Math.min(written, KEPT), StandardCharsets.UTF_8);
+        }
+
+        String tail() {
+            int count = (int) Math.min(written, KEPT);
+            byte[] bytes = new byte[count];
+            for (int i = 0; i < count; i++) {
+                bytes[i] = tail[(int) ((written - count + i) % KEPT)];
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.handshakr.handshakr_prototype.repository;
+
+import com.handshakr.handshakr_prototype.exceptions.HandshakeExceptionFactory;
+import com.handshakr.handshakr_prototype.exceptions.UserExceptionFactory;
+import com.handshakr.handshakr_prototype.exceptions.handshake.HandshakeInvalidTransitionException;
+import com.handshakr.handshakr_prototype.exceptions.handshake.HandshakeVersionMismatchException;
+import com.handshakr.handshakr_prototype.handshake.Handshake;
+import com.handshakr.handshakr_prototype.handshake.HandshakeCache;
+import com.handshakr.handshakr_prototype.handshake.HandshakeRepository;
+import com.handshakr.handshakr_prototype.handshake.HandshakeService;
+import com.handshakr.handshakr_prototype.handshake.HandshakeServiceImpl;
+import com.handshakr.handshakr_prototype.handshake.HandshakeState;
+import com.handshakr.handshakr_prototype.handshake.HandshakeStatus;
+import com.handshakr.handshakr_prototype.user.User;
+import com.handshakr.handshakr_prototype.user.UserRepository;
+import com.handshakr.handshakr_prototype.user.UserServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Races conflicting status transitions on one handshake. Each transition is a single conditional update, so
+ * whichever commits first wins and every other one matches no row and fails as a conflict, or as a failed
+ * precondition when it was made against a version that is no longer current.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({HandshakeServiceImpl.class, HandshakeExceptionFactory.class, UserServiceImpl.class, UserExceptionFactory.class,
+        HandshakeCache.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HandshakeTransitionConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private HandshakeService handshakeService;
+
+    @Autowired
+    private HandshakeRepository handshakeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        User initiator = userRepository.save(new User("initiator", "initiator@test.com", "password"));
+        User receiver = userRepository.save(new User("receiver", "receiver@test.com", "password"));
+        handshakeRepository.save(new Handshake(
+                "raced", "encrypted details", "initiator", "receiver", initiator, receiver));
+    }
+
+    @AfterEach
+    void tearDown() {
+        handshakeRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @RepeatedTest(5)
+    void updateHandshake_AcceptRacingCancel_ExactlyOneWins() throws Exception {
+        List<HandshakeStatus> targets = IntStream.range(0, THREADS)
+                .mapToObj(i -> i % 2 == 0 ? HandshakeStatus.ACCEPTED : HandshakeStatus.CANCELLED)
+                .toList();
+
+        Map<HandshakeStatus, List<Throwable>> outcomes = race(targets, null);
+
+        HandshakeStatus finalStatus = handshakeRepository.findStateByHandshakeName("raced").orElseThrow().handshakeStatus();
+        assertThat(finalStatus).isIn(HandshakeStatus.ACCEPTED, HandshakeStatus.CANCELLED);
+
+        long wins = targets.size() - outcomes.values().stream().mapToLong(List::size).sum();
+        assertThat(wins).isEqualTo(1);
+        assertThat(outcomes.values()).allSatisfy(failures -> assertThat(failures)
+                .allSatisfy(failure -> assertThat(failure).isInstanceOf(HandshakeInvalidTransitionException.class)));
+        assertThat(outcomes.get(finalStatus)).hasSize(THREADS / 2 - 1);
+    }
+
+    @RepeatedTest(5)
+    void updateHandshake_SameVersionFromManyThreads_OthersFailPrecondition() throws Exception {
+        List<HandshakeStatus> targets = IntStream.range(0, THREADS)
+                .mapToObj(i -> HandshakeStatus.PENDING)
+                .toList();
+
+        Map<HandshakeStatus, List<Throwable>> outcomes = race(targets, 0L);
+
+        assertThat(outcomes.get(HandshakeStatus.PENDING)).hasSize(THREADS - 1)
+                .allSatisfy(failure -> assertThat(failure).isInstanceOf(HandshakeVersionMismatchException.class));
+        HandshakeState state = handshakeRepository.findStateByHandshakeName("raced").orElseThrow();
+        assertThat(state.handshakeStatus()).isEqualTo(HandshakeStatus.PENDING);
+        assertThat(state.version()).isEqualTo(1);
+    }
+
+    /**
+     * Applies one transition per thread, all released at once, and returns what each failed transition threw,
+     * grouped by the status it tried to reach.
+     */
+    private Map<HandshakeStatus, List<Throwable>> race(List<HandshakeStatus> targets, Long expectedVersion)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> updates = targets.stream()
+                    .<Future<?>>map(target -> pool.submit(() -> {
+                        start.await();
+                        handshakeService.updateHandshake("raced", target, expectedVersion);
+                        return null;
+                    }))
+                    .toList();
+            start.countDown();
+
+            Map<HandshakeStatus, List<Throwable>> failures = new ConcurrentHashMap<>();
+            for (HandshakeStatus status : HandshakeStatus.values()) {
+                failures.put(status, new ArrayList<>());
+            }
+            for (int i = 0; i < updates.size(); i++) {
+                try {
+                    updates.get(i).get(30, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    failures.get(targets.get(i)).add(e.getCause());
+                }
+            }
+            return failures;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
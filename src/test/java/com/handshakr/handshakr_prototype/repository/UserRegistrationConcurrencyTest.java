@@ -0,0 +1,109 @@
+package com.handshakr.handshakr_prototype.repository;
+
+import com.handshakr.handshakr_prototype.exceptions.UserExceptionFactory;
+import com.handshakr.handshakr_prototype.exceptions.user.UserAlreadyExistsException;
+import com.handshakr.handshakr_prototype.user.User;
+import com.handshakr.handshakr_prototype.user.UserRepository;
+import com.handshakr.handshakr_prototype.user.UserService;
+import com.handshakr.handshakr_prototype.user.UserServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({UserServiceImpl.class, UserExceptionFactory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRegistrationConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void saveUser_SameUsernameFromManyThreads_ExactlyOneSucceeds() throws Exception {
+        List<Throwable> failures = race(i -> new User("racer", "racer" + i + "@test.com", "hash"));
+
+        assertThat(failures).hasSize(THREADS - 1)
+                .allSatisfy(failure -> assertThat(failure)
+                        .isInstanceOf(UserAlreadyExistsException.class)
+                        .hasMessageContaining("racer"));
+        assertThat(userRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void saveUser_SameEmailFromManyThreads_ReportsEmail() throws Exception {
+        List<Throwable> failures = race(i -> new User("racer" + i, "shared@test.com", "hash"));
+
+        assertThat(failures).hasSize(THREADS - 1)
+                .allSatisfy(failure -> assertThat(failure)
+                        .isInstanceOf(UserAlreadyExistsException.class)
+                        .hasMessageContaining("shared@test.com"));
+    }
+
+    /**
+     * Saves one user per thread, all released at once, and returns what each failed save threw.
+     */
+    private List<Throwable> race(java.util.function.IntFunction<User> users) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<User>> saves = IntStream.range(0, THREADS)
+                    .mapToObj(i -> pool.submit(() -> {
+                        start.await();
+                        return userService.saveUser(users.apply(i));
+                    }))
+                    .toList();
+            start.countDown();
+
+            List<Throwable> failures = new CopyOnWriteArrayList<>();
+            for (Future<User> save : saves) {
+                try {
+                    save.get(30, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+            return failures;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.handshakr.handshakr_prototype.security;
+
+import com.handshakr.handshakr_prototype.exceptions.security.AuthenticationOverloadedException;
+import com.handshakr.handshakr_prototype.security.password.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    @Test
+    void encodeAndMatches_DelegateOnPool() {
+        encoder = bounded(new PlainEncoder(), 2, 2, Duration.ofSeconds(5));
+
+        String encoded = encoder.encode("password");
+
+        assertThat(encoder.matches("password", encoded)).isTrue();
+        assertThat(encoder.matches("wrong", encoded)).isFalse();
+        assertThat(meterRegistry.get("password.hash.latency").tag("operation", "matches").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void saturatedPool_RejectsImmediatelyWithRetryAfter() throws Exception {
+        encoder = bounded(new BlockingEncoder(), 1, 1, Duration.ofSeconds(5));
+        CompletableFuture.runAsync(() -> encoder.encode("running"));
+        CompletableFuture.runAsync(() -> encoder.encode("queued"));
+        awaitQueueDepth(1);
+
+        assertThatThrownBy(() -> encoder.encode("rejected"))
+                .isInstanceOfSatisfying(AuthenticationOverloadedException.class, e ->
+                        assertThat(e.getRetryAfterSeconds()).isEqualTo(3));
+        assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void slowHash_GivesUpAfterMaxWait() {
+        encoder = bounded(new BlockingEncoder(), 1, 1, Duration.ofMillis(50));
+
+        assertThatThrownBy(() -> encoder.encode("slow")).isInstanceOf(AuthenticationOverloadedException.class);
+    }
+
+    private BoundedPasswordEncoder bounded(PasswordEncoder delegate, int threads, int queue, Duration maxWait) {
+        return new BoundedPasswordEncoder(delegate, threads, queue, maxWait, 3, meterRegistry);
+    }
+
+    private void awaitQueueDepth(double depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("password.hash.queue.depth").gauge().value() < depth && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static class PlainEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "{plain}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    private class BlockingEncoder extends PlainEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.encode(rawPassword);
+        }
+    }
+}
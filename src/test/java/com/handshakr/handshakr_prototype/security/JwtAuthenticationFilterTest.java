@@ -0,0 +1,120 @@
+package com.handshakr.handshakr_prototype.security;
+
+import com.handshakr.handshakr_prototype.security.auth.JwtServiceImpl;
+import com.handshakr.handshakr_prototype.security.auth.TokenPrincipal;
+import com.handshakr.handshakr_prototype.security.auth.UserVersionTable;
+import com.handshakr.handshakr_prototype.security.filter.JwtAuthenticationFilter;
+import com.handshakr.handshakr_prototype.security.revocation.TokenRevocationService;
+import com.handshakr.handshakr_prototype.user.User;
+import com.handshakr.handshakr_prototype.user.UserService;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private JwtServiceImpl jwtService;
+    private UserVersionTable versionTable;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtServiceImpl();
+        jwtService.setSecretKey(Base64.getEncoder().encodeToString(Jwts.SIG.HS256.key().build().getEncoded()));
+        versionTable = new UserVersionTable(userService);
+
+        user = new User("user", "user@test.com", "password");
+        user.setId(42L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statelessMode_ValidSnapshot_AuthenticatesWithoutLoadingUser() throws Exception {
+        String token = jwtService.generateToken(user);
+
+        Authentication authentication = filter(true, token);
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal()).isInstanceOfSatisfying(TokenPrincipal.class, principal -> {
+            assertThat(principal.id()).isEqualTo(42L);
+            assertThat(principal.getUsername()).isEqualTo("user");
+        });
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void statelessMode_UserLockedAfterIssue_RejectsWithoutLoadingUser() throws Exception {
+        String token = jwtService.generateToken(user);
+        user.setAccountNonLocked(false);
+        versionTable.record(user.getId(), user.getSecurityVersion());
+
+        assertThat(filter(true, token)).isNull();
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void statelessMode_LockedSnapshot_Rejects() throws Exception {
+        user.setAccountNonLocked(false);
+        String token = jwtService.generateToken(user);
+
+        assertThat(filter(true, token)).isNull();
+    }
+
+    @Test
+    void defaultMode_ValidToken_LoadsUser() throws Exception {
+        String token = jwtService.generateToken(user);
+        when(userDetailsService.loadUserByUsername("user")).thenReturn(user);
+
+        Authentication authentication = filter(false, token);
+
+        assertThat(authentication.getPrincipal()).isSameAs(user);
+    }
+
+    @Test
+    void revokedToken_NotAuthenticated() throws Exception {
+        String token = jwtService.generateToken(user);
+        when(tokenRevocationService.isRevoked(any())).thenReturn(true);
+
+        assertThat(filter(false, token)).isNull();
+        verifyNoInteractions(userDetailsService);
+    }
+
+    private Authentication filter(boolean statelessAuth, String token) throws Exception {
+        JwtAuthenticationFilter filter =
+                new JwtAuthenticationFilter(jwtService, userDetailsService, versionTable, tokenRevocationService, statelessAuth);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/validate");
+        request.addHeader("Authorization", "Bearer " + token);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,86 @@
+package com.handshakr.handshakr_prototype.security;
+
+import com.handshakr.handshakr_prototype.security.auth.JwtKeyRing;
+import com.handshakr.handshakr_prototype.security.auth.JwtServiceImpl;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    private final UserDetails user = User.withUsername("user").password("unused").build();
+
+    @ParameterizedTest
+    @EnumSource(value = JwtKeyRing.Algorithm.class, names = {"ES256", "EdDSA"})
+    void asymmetricKeys_SignAndVerifyWithKid(JwtKeyRing.Algorithm algorithm) {
+        JwtKeyRing keyRing = new JwtKeyRing(algorithm);
+        JwtServiceImpl jwtService = new JwtServiceImpl(keyRing);
+
+        String token = jwtService.generateToken(user);
+
+        assertThat(jwtService.validateToken(token)).hasValueSatisfying(claims ->
+                assertThat(claims.subject()).isEqualTo("user"));
+        assertThat(Jwts.parser().keyLocator(keyRing::locate).build().parseSignedClaims(token).getHeader().getKeyId())
+                .isEqualTo(keyRing.signingKeyId());
+    }
+
+    @Test
+    void rotate_TokensFromPreviousKeyStillValid() {
+        JwtKeyRing keyRing = new JwtKeyRing(JwtKeyRing.Algorithm.EdDSA);
+        JwtServiceImpl jwtService = new JwtServiceImpl(keyRing);
+        String before = jwtService.generateToken(user);
+        String previousKid = keyRing.signingKeyId();
+
+        String newKid = keyRing.rotate();
+        String after = jwtService.generateToken(user);
+
+        assertThat(newKid).isNotEqualTo(previousKid);
+        assertThat(jwtService.validateToken(before)).isPresent();
+        assertThat(jwtService.validateToken(after)).isPresent();
+        assertThat(kids(keyRing)).containsExactlyInAnyOrder(previousKid, newKid);
+    }
+
+    @Test
+    void validateToken_UnknownKid_ReturnsEmpty() {
+        String token = new JwtServiceImpl(new JwtKeyRing(JwtKeyRing.Algorithm.ES256)).generateToken(user);
+
+        assertThat(new JwtServiceImpl(new JwtKeyRing(JwtKeyRing.Algorithm.ES256)).validateToken(token)).isEmpty();
+    }
+
+    @Test
+    void publicJwks_Hs256_PublishesNoKeys() {
+        JwtKeyRing keyRing = new JwtKeyRing(JwtKeyRing.Algorithm.HS256);
+        keyRing.useSecret(Base64.getEncoder().encodeToString(Jwts.SIG.HS256.key().build().getEncoded()));
+
+        assertThat(kids(keyRing)).isEmpty();
+        assertThatThrownBy(keyRing::rotate).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void legacySecret_VerifiesTokensWithoutKidAfterSwitchingAlgorithm() {
+        String secret = Base64.getEncoder().encodeToString(Jwts.SIG.HS256.key().build().getEncoded());
+        JwtServiceImpl legacy = new JwtServiceImpl();
+        legacy.setSecretKey(secret);
+        String token = legacy.generateToken(user);
+
+        JwtKeyRing keyRing = new JwtKeyRing(JwtKeyRing.Algorithm.EdDSA, secret, "", "", "");
+
+        assertThat(new JwtServiceImpl(keyRing).validateToken(token)).isPresent();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> kids(JwtKeyRing keyRing) {
+        return ((List<Map<String, Object>>) keyRing.publicJwks().get("keys")).stream()
+                .map(jwk -> jwk.get("kid"))
+                .toList();
+    }
+}
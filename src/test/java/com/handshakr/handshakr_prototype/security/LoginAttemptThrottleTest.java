@@ -0,0 +1,56 @@
+package com.handshakr.handshakr_prototype.security;
+
+import com.handshakr.handshakr_prototype.security.auth.LoginAttemptThrottle;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LoginAttemptThrottleTest {
+
+    private final LoginAttemptThrottle throttle = new LoginAttemptThrottle(3, 10, 6, 900, 86400, 3600);
+
+    @Test
+    void retryAfter_BelowThreshold_AllowsLogin() {
+        throttle.recordFailure("user", "10.0.0.1");
+        throttle.recordFailure("user", "10.0.0.1");
+
+        assertThat(throttle.retryAfter("user", "10.0.0.1")).isZero();
+    }
+
+    @Test
+    void retryAfter_UsernameAtThreshold_ThrottlesFromAnyAddress() {
+        IntStream.range(0, 3).forEach(i -> throttle.recordFailure("user", "10.0.0." + i));
+
+        assertThat(throttle.retryAfter("user", "10.0.0.99")).isPositive().isLessThan(Duration.ofSeconds(900));
+        assertThat(throttle.retryAfter("other", "10.0.0.99")).isZero();
+    }
+
+    @Test
+    void retryAfter_AddressAtThreshold_ThrottlesEveryUsername() {
+        IntStream.range(0, 10).forEach(i -> throttle.recordFailure("user" + i, "10.0.0.1"));
+
+        assertThat(throttle.retryAfter("fresh", "10.0.0.1")).isPositive();
+        assertThat(throttle.retryAfter("fresh", "10.0.0.2")).isZero();
+    }
+
+    @Test
+    void recordFailure_ReportsLockThresholdOnce() {
+        long locks = IntStream.range(0, 10)
+                .filter(i -> throttle.recordFailure("user", null))
+                .count();
+
+        assertThat(locks).isEqualTo(1);
+    }
+
+    @Test
+    void recordSuccess_ClearsUsernameScore() {
+        IntStream.range(0, 3).forEach(i -> throttle.recordFailure("user", null));
+
+        throttle.recordSuccess("user");
+
+        assertThat(throttle.retryAfter("user", null)).isZero();
+    }
+}
@@ -0,0 +1,79 @@
+package com.handshakr.handshakr_prototype.security;
+
+import com.handshakr.handshakr_prototype.security.password.PasswordHashing;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PasswordHashingTest {
+
+    private final PasswordEncoder encoder = PasswordHashing.delegating("pbkdf2-310000");
+
+    @Test
+    void encode_PrefixesEncoderId() {
+        String encoded = encoder.encode("password");
+
+        assertThat(encoded).startsWith("{pbkdf2-310000}");
+        assertThat(encoder.matches("password", encoded)).isTrue();
+        assertThat(encoder.upgradeEncoding(encoded)).isFalse();
+    }
+
+    @Test
+    void legacyUnprefixedHash_MatchesAndNeedsUpgrade() {
+        String legacy = Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8().encode("password");
+
+        assertThat(encoder.matches("password", legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+    }
+
+    @Test
+    void hashFromOtherLadderStep_MatchesAndNeedsUpgrade() {
+        String bcrypt = PasswordHashing.delegating("bcrypt-10").encode("password");
+
+        assertThat(encoder.matches("password", bcrypt)).isTrue();
+        assertThat(encoder.upgradeEncoding(bcrypt)).isTrue();
+    }
+
+    @Test
+    void delegating_UnknownId_Throws() {
+        assertThatThrownBy(() -> PasswordHashing.delegating("md5")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void calibrate_TargetBelowCheapestStep_PicksCheapestStep() {
+        PasswordHashing.Calibration calibration = PasswordHashing.calibrate(PasswordHashing.BCRYPT, Duration.ofMillis(1));
+
+        assertThat(calibration.encoderId()).isEqualTo("bcrypt-10");
+        assertThat(calibration.hashTime()).isPositive();
+    }
+
+    @Test
+    void successfulLogin_WithLegacyHash_PersistsRehash() {
+        UserDetails user = User.withUsername("user")
+                .password(Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8().encode("password"))
+                .build();
+        AtomicReference<String> rehashed = new AtomicReference<>();
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(username -> user);
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsPasswordService((details, newPassword) -> {
+            rehashed.set(newPassword);
+            return User.withUserDetails(details).password(newPassword).build();
+        });
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("user", "password"));
+
+        assertThat(rehashed.get()).startsWith("{pbkdf2-310000}");
+        assertThat(encoder.matches("password", rehashed.get())).isTrue();
+    }
+}
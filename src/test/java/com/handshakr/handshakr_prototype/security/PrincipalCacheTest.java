@@ -0,0 +1,73 @@
+package com.handshakr.handshakr_prototype.security;
+
+import com.handshakr.handshakr_prototype.user.User;
+import com.handshakr.handshakr_prototype.user.UserUpdatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, User> loader = username -> {
+        loads.incrementAndGet();
+        return new User(username, username + "@test.com", "password");
+    };
+
+    private PrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PrincipalCache(100, 300, meterRegistry);
+    }
+
+    @Test
+    void get_RepeatedUsername_LoadsOnce() {
+        cache.get("user", loader);
+        cache.get("user", loader);
+        cache.get("user", loader);
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(2);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void onUserUpdated_CachedUser_EvictsAndReloads() {
+        User user = (User) cache.get("user", loader);
+
+        cache.onUserUpdated(new UserUpdatedEvent(user));
+        cache.get("user", loader);
+
+        assertThat(loads).hasValue(2);
+        assertThat(meterRegistry.get("cache.invalidations").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_LoaderThrows_DoesNotCache() {
+        Function<String, User> failing = username -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("not found");
+        };
+
+        assertThatThrownBy(() -> cache.get("missing", failing)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> cache.get("missing", failing)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void metrics_RegisteredUnderPrincipalsCache() {
+        cache.get("user", loader);
+        cache.get("user", loader);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "principals").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+}
@@ -1,6 +1,7 @@
 package com.handshakr.handshakr_prototype.security;
 
 import com.handshakr.handshakr_prototype.security.filter.JwtAuthenticationFilter;
+import com.handshakr.handshakr_prototype.security.revocation.TokenRevocationService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -61,6 +62,9 @@ class SecurityConfigurationTest {
 
         @MockitoBean
         JwtAuthenticationFilter jwtAuthenticationFilter;
+
+        @MockitoBean
+        TokenRevocationService tokenRevocationService;
     }
 
     // ========== SECURITY FILTER CHAIN TESTS ==========
@@ -136,8 +140,9 @@ class SecurityConfigurationTest {
     @EnableWebSecurity
     static class TestSecurityConfig extends SecurityConfiguration {
         public TestSecurityConfig(AuthenticationProvider authProvider,
-                                  JwtAuthenticationFilter jwtFilter) {
-            super(authProvider, jwtFilter);
+                                  JwtAuthenticationFilter jwtFilter,
+                                  TokenRevocationService tokenRevocationService) {
+            super(authProvider, jwtFilter, tokenRevocationService);
         }
 
         @Bean
@@ -0,0 +1,96 @@
+package com.handshakr.handshakr_prototype.security;
+
+import com.handshakr.handshakr_prototype.security.auth.JwtService;
+import com.handshakr.handshakr_prototype.security.auth.TokenClaims;
+import com.handshakr.handshakr_prototype.security.revocation.RevokedToken;
+import com.handshakr.handshakr_prototype.security.revocation.RevokedTokenRepository;
+import com.handshakr.handshakr_prototype.security.revocation.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokens;
+
+    @Mock
+    private JwtService jwtService;
+
+    private TokenRevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        revocationService = new TokenRevocationService(revokedTokens, jwtService, 1000, 0.001, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void isRevoked_NeverRevoked_DoesNotQueryStorage() {
+        revocationService.revoke(claims(Instant.now().plus(Duration.ofHours(2))));
+
+        assertThat(revocationService.isRevoked(claims(Instant.now().plus(Duration.ofHours(2))))).isFalse();
+        verify(revokedTokens, never()).existsById(any());
+    }
+
+    @Test
+    void isRevoked_RevokedToken_ConfirmsInStorage() {
+        TokenClaims claims = claims(Instant.now().plus(Duration.ofHours(2)));
+        revocationService.revoke(claims);
+        when(revokedTokens.existsById(claims.tokenId())).thenReturn(true);
+
+        assertThat(revocationService.isRevoked(claims)).isTrue();
+        verify(revokedTokens).save(argThat(revoked -> revoked.getJti().equals(claims.tokenId())));
+    }
+
+    @Test
+    void isRevoked_StorageUnavailable_FailsClosed() {
+        TokenClaims claims = claims(Instant.now().plus(Duration.ofHours(2)));
+        revocationService.revoke(claims);
+        when(revokedTokens.existsById(claims.tokenId())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThat(revocationService.isRevoked(claims)).isTrue();
+    }
+
+    @Test
+    void sync_LoadsRevocationsFromOtherNodes() {
+        TokenClaims claims = claims(Instant.now().plus(Duration.ofHours(2)));
+        when(revokedTokens.findByRevokedAtAfterAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(new RevokedToken(claims.tokenId(), claims.expiration(), Instant.now())));
+        when(revokedTokens.existsById(claims.tokenId())).thenReturn(true);
+
+        revocationService.sync();
+
+        assertThat(revocationService.isRevoked(claims)).isTrue();
+    }
+
+    @Test
+    void purgeExpired_DropsPastBucketsAndRows() {
+        TokenClaims expired = claims(Instant.now().minus(Duration.ofHours(2)));
+        revocationService.revoke(expired);
+
+        revocationService.purgeExpired();
+
+        assertThat(revocationService.isRevoked(expired)).isFalse();
+        verify(revokedTokens).deleteByExpiresAtBefore(any());
+        verify(revokedTokens, never()).existsById(any());
+    }
+
+    private static TokenClaims claims(Instant expiration) {
+        return new TokenClaims("user", Instant.now(), expiration, Map.of(Claims.ID, UUID.randomUUID().toString()));
+    }
+}
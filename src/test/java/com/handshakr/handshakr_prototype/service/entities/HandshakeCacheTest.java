@@ -0,0 +1,72 @@
+package com.handshakr.handshakr_prototype.service.entities;
+
+import com.handshakr.handshakr_prototype.handshake.HandshakeCache;
+import com.handshakr.handshakr_prototype.handshake.HandshakeChangedEvent;
+import com.handshakr.handshakr_prototype.handshake.HandshakeStatus;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HandshakeCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, HandshakeDto> loader = name -> {
+        loads.incrementAndGet();
+        return new HandshakeDto(name, "encrypted details", Instant.EPOCH, Instant.EPOCH,
+                HandshakeStatus.CREATED, "initiator", "receiver", 0L);
+    };
+
+    private HandshakeCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new HandshakeCache(1_000_000, 300, meterRegistry);
+    }
+
+    @Test
+    void get_RepeatedName_LoadsOnce() {
+        cache.get("hs", loader);
+        cache.get("hs", loader);
+        cache.get("hs", loader);
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.hit.ratio").tag("cache", "handshakes").gauge().value())
+                .isEqualTo(2.0 / 3);
+    }
+
+    @Test
+    void onHandshakesChanged_CachedHandshake_EvictsAndReloads() {
+        cache.get("hs", loader);
+        cache.get("other", loader);
+
+        cache.onHandshakesChanged(new HandshakeChangedEvent(List.of("hs", "uncached")));
+        cache.get("hs", loader);
+        cache.get("other", loader);
+
+        assertThat(loads).hasValue(3);
+        assertThat(meterRegistry.get("cache.invalidations").tag("cache", "handshakes").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void get_LoaderReturnsNull_DoesNotCache() {
+        Function<String, HandshakeDto> missing = name -> {
+            loads.incrementAndGet();
+            return null;
+        };
+
+        assertThat(cache.get("missing", missing)).isNull();
+        assertThat(cache.get("missing", missing)).isNull();
+
+        assertThat(loads).hasValue(2);
+    }
+}
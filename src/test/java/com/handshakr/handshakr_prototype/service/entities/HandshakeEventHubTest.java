@@ -0,0 +1,88 @@
+package com.handshakr.handshakr_prototype.service.entities;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.handshakr.handshakr_prototype.controller.HandshakeController;
+import com.handshakr.handshakr_prototype.handshake.HandshakeChangedEvent;
+import com.handshakr.handshakr_prototype.handshake.HandshakeEventHub;
+import com.handshakr.handshakr_prototype.handshake.HandshakeRepository;
+import com.handshakr.handshakr_prototype.handshake.HandshakeService;
+import com.handshakr.handshakr_prototype.handshake.HandshakeStatus;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
+
+@ExtendWith(MockitoExtension.class)
+class HandshakeEventHubTest {
+
+    @Mock
+    private HandshakeRepository repository;
+
+    @Mock
+    private HandshakeService handshakeService;
+
+    private HandshakeEventHub eventHub;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        eventHub = new HandshakeEventHub(repository, 60_000, 2);
+        mockMvc = standaloneSetup(new HandshakeController(handshakeService, eventHub, new ObjectMapper())).build();
+    }
+
+    @Test
+    void subscriber_ReceivesChangesToOwnHandshakesOnly() throws Exception {
+        MvcResult stream = subscribe("user2");
+        when(repository.findDtosByHandshakeNameIn(List.of("hs1", "hs2")))
+                .thenReturn(List.of(dto("hs1", "user1", "user2"), dto("hs2", "user1", "user3")));
+
+        eventHub.onHandshakesChanged(new HandshakeChangedEvent(List.of("hs1", "hs2")));
+
+        await().untilAsserted(() -> assertThat(stream.getResponse().getContentAsString())
+                .contains("event:" + HandshakeEventHub.EVENT_NAME)
+                .contains("id:hs1:3")
+                .contains("\"handshakeName\":\"hs1\""));
+        assertThat(stream.getResponse().getContentAsString()).doesNotContain("hs2");
+    }
+
+    @Test
+    void subscribe_SendsHeartbeatAndCountsSubscribers() throws Exception {
+        MvcResult stream = subscribe("user1");
+        subscribe("user1");
+
+        assertThat(eventHub.subscriberCount()).isEqualTo(2);
+        await().untilAsserted(() -> assertThat(stream.getResponse().getContentAsString()).contains(":heartbeat"));
+    }
+
+    @Test
+    void noSubscribers_DoesNotReadHandshakes() {
+        eventHub.onHandshakesChanged(new HandshakeChangedEvent(List.of("hs1")));
+
+        verifyNoInteractions(repository);
+    }
+
+    private MvcResult subscribe(String username) throws Exception {
+        return mockMvc.perform(get("/handshake/events").principal(() -> username))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static HandshakeDto dto(String name, String initiator, String acceptor) {
+        return new HandshakeDto(name, "encrypted details", Instant.ofEpochSecond(1_000), null,
+                HandshakeStatus.ACCEPTED, initiator, acceptor, 3);
+    }
+}
@@ -1,26 +1,56 @@
 package com.handshakr.handshakr_prototype.service.entities;
 
 import com.handshakr.handshakr_prototype.exceptions.HandshakeExceptionFactory;
+import com.handshakr.handshakr_prototype.exceptions.general.BadRequestException;
+import com.handshakr.handshakr_prototype.exceptions.handshake.HandshakeAlreadyExistsException;
+import com.handshakr.handshakr_prototype.exceptions.handshake.HandshakeInvalidTransitionException;
 import com.handshakr.handshakr_prototype.exceptions.handshake.HandshakeNotFoundException;
+import com.handshakr.handshakr_prototype.exceptions.handshake.HandshakeServiceUnavailableException;
+import com.handshakr.handshakr_prototype.exceptions.handshake.HandshakeVersionMismatchException;
 import com.handshakr.handshakr_prototype.exceptions.user.UserNotFoundException;
 import com.handshakr.handshakr_prototype.handshake.Handshake;
+import com.handshakr.handshakr_prototype.handshake.HandshakeCache;
+import com.handshakr.handshakr_prototype.handshake.HandshakeChangedEvent;
 import com.handshakr.handshakr_prototype.handshake.HandshakeRepository;
+import com.handshakr.handshakr_prototype.handshake.HandshakeRow;
 import com.handshakr.handshakr_prototype.handshake.HandshakeServiceImpl;
+import com.handshakr.handshakr_prototype.handshake.HandshakeState;
 import com.handshakr.handshakr_prototype.handshake.HandshakeStatus;
 import com.handshakr.handshakr_prototype.handshake.dto.CreateHandshakeRequest;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeCreationResult;
 import com.handshakr.handshakr_prototype.handshake.dto.HandshakeDto;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeInbox;
+import com.handshakr.handshakr_prototype.handshake.dto.HandshakeTransitionResult;
+import com.handshakr.handshakr_prototype.handshake.outbox.HandshakeEventType;
+import com.handshakr.handshakr_prototype.handshake.outbox.HandshakeOutboxRepository;
+import com.handshakr.handshakr_prototype.response.CursorPage;
 import com.handshakr.handshakr_prototype.user.User;
 import com.handshakr.handshakr_prototype.user.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import static com.handshakr.handshakr_prototype.Constants.MAX_BULK_HANDSHAKES;
+import static com.handshakr.handshakr_prototype.Constants.MAX_PAGE_SIZE;
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,9 +62,18 @@ class HandshakeServiceImplTest {
     @Mock
     private HandshakeRepository repository;
 
+    @Spy
+    private HandshakeCache cache = new HandshakeCache(1_000_000, 300, new SimpleMeterRegistry());
+
+    @Mock
+    private HandshakeOutboxRepository outbox;
+
     @Mock
     private HandshakeExceptionFactory exceptionFactory;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private HandshakeServiceImpl handshakeService;
 
@@ -45,97 +84,388 @@ class HandshakeServiceImplTest {
     @Test
     void createHandshake_ValidRequest_CreatesHandshake() {
         CreateHandshakeRequest request = new CreateHandshakeRequest(
-                "test-handshake", "receiver", "encrypted-data");
+                "test-handshake", "encrypted-data", "receiver");
         User initiator = new User("initiator", "init@test.com", "pass");
         User receiver = new User("receiver", "rec@test.com", "pass");
 
-        when(userService.findByUsername("initiator")).thenReturn(initiator);
-        when(userService.findByUsername("receiver")).thenReturn(receiver);
-        when(repository.existsByHandshakeName("test-handshake")).thenReturn(false);
+        when(userService.findAllByUsername(List.of("initiator", "receiver")))
+                .thenReturn(Map.of("initiator", initiator, "receiver", receiver));
+        when(repository.saveAndFlush(any(Handshake.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        handshakeService.createHandshake(request, "initiator");
+        HandshakeDto created = handshakeService.createHandshake(request, "initiator");
 
-        verify(repository).save(any(Handshake.class));
+        assertThat(created.handshakeName()).isEqualTo("test-handshake");
+        assertThat(created.initiatorUsername()).isEqualTo("initiator");
+        assertThat(created.acceptorUsername()).isEqualTo("receiver");
+        verify(repository, never()).existsByHandshakeName(any());
+        verify(userService, never()).findByUsername(any());
+        verify(outbox).record(eq(List.of("test-handshake")), eq(HandshakeEventType.CREATED.name()), any(Instant.class));
     }
 
     @Test
     void createHandshake_ExistingName_ThrowsException() {
         CreateHandshakeRequest request = new CreateHandshakeRequest(
-                "existing", "receiver", "data");
-        when(repository.existsByHandshakeName("existing")).thenReturn(true);
+                "existing", "data", "receiver");
+        when(userService.findAllByUsername(List.of("initiator", "receiver")))
+                .thenReturn(Map.of("initiator", user1, "receiver", user2));
+        when(repository.saveAndFlush(any(Handshake.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", null, Handshake.HANDSHAKE_NAME_CONSTRAINT)));
+        when(exceptionFactory.handshakeAlreadyExists("existing"))
+                .thenReturn(new HandshakeAlreadyExistsException("Handshake with name 'existing' already exists"));
+
+        assertThatThrownBy(() -> handshakeService.createHandshake(request, "initiator"))
+                .isInstanceOf(HandshakeAlreadyExistsException.class);
+    }
+
+    @Test
+    void createHandshake_UnknownReceiver_RejectedBeforeInsert() {
+        CreateHandshakeRequest request = new CreateHandshakeRequest(
+                "test-handshake", "data", "nobody");
+        when(userService.findAllByUsername(List.of("initiator", "nobody")))
+                .thenReturn(Map.of("initiator", user1));
+        when(exceptionFactory.badRequest("User not found: receiver"))
+                .thenReturn(new BadRequestException("User not found: receiver"));
 
         assertThatThrownBy(() -> handshakeService.createHandshake(request, "initiator"))
-                .isInstanceOf(RuntimeException.class);
+                .isInstanceOf(BadRequestException.class);
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createHandshakes_MixedRequests_ReportsEachAndInsertsValidOnesTogether() {
+        List<CreateHandshakeRequest> requests = List.of(
+                new CreateHandshakeRequest("hs1", "data", "user2"),
+                new CreateHandshakeRequest("taken", "data", "user2"),
+                new CreateHandshakeRequest("hs2", "data", "nobody"),
+                new CreateHandshakeRequest("hs1", "data", "user2"),
+                new CreateHandshakeRequest("hs3", " ", "user2"),
+                new CreateHandshakeRequest("hs4", "data", "user2"));
+        when(userService.findAllByUsername(Set.of("user1", "user2", "nobody")))
+                .thenReturn(Map.of("user1", user1, "user2", user2));
+        // "taken" is skipped by the insert, as a name taken before or during the call would be
+        when(repository.insertAllIgnoringTaken(aryEq(new String[]{"hs1", "taken", "hs4"}), any(), any(), any(),
+                eq("user1"), any(), eq(HandshakeStatus.CREATED.ordinal()), any(), eq(Handshake.ID_ALLOCATION_SIZE)))
+                .thenReturn(List.of("hs1", "hs4"));
+
+        List<HandshakeCreationResult> results = handshakeService.createHandshakes(requests, "user1");
+
+        assertThat(results).extracting(HandshakeCreationResult::created)
+                .containsExactly(true, false, false, false, false, true);
+        assertThat(results.get(1).error()).contains("already exists");
+        assertThat(results.get(2).error()).isEqualTo("User not found: receiver");
+        assertThat(results.get(3).error()).isEqualTo("Duplicate handshake name in request");
+        assertThat(results.get(5).handshake().initiatorUsername()).isEqualTo("user1");
+        assertThat(results.get(5).handshake().acceptorUsername()).isEqualTo("user2");
+        verify(outbox).record(eq(Set.of("hs1", "hs4")), eq(HandshakeEventType.CREATED.name()), any(Instant.class));
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createHandshakes_TooMany_RejectedBeforeQuerying() {
+        List<CreateHandshakeRequest> requests = Collections.nCopies(MAX_BULK_HANDSHAKES + 1,
+                new CreateHandshakeRequest("hs", "data", "user2"));
+        when(exceptionFactory.badRequest(anyString())).thenReturn(new BadRequestException("Too many"));
+
+        assertThatThrownBy(() -> handshakeService.createHandshakes(requests, "user1"))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(userService, repository);
     }
 
     // ===== UPDATE HANDSHAKE TESTS =====
     @Test
-    void updateHandshake_ValidRequest_UpdatesStatus() {
-        Handshake existing = new Handshake(
-                "test",
-                "encrypted details",
-                "user1",
-                "user2",
-                user1,
-                user2
-        );
-        when(repository.findByHandshakeName("test")).thenReturn(Optional.of(existing));
+    void updateHandshake_ValidRequest_UpdatesInOneStatement() {
+        when(repository.transition(eq("test"), eq(Set.of(HandshakeStatus.CREATED, HandshakeStatus.PENDING)),
+                eq(HandshakeStatus.ACCEPTED), isNull(), any(Instant.class))).thenReturn(1);
 
-        handshakeService.updateHandshake("test", HandshakeStatus.ACCEPTED);
+        handshakeService.updateHandshake("test", HandshakeStatus.ACCEPTED, null);
 
-        assertThat(existing.getHandshakeStatus()).isEqualTo(HandshakeStatus.ACCEPTED);
-        verify(repository).save(existing);
+        verify(repository, never()).findStateByHandshakeName(any());
+        verify(repository, never()).saveAndFlush(any());
+        verify(outbox).record(eq(List.of("test")), eq(HandshakeEventType.STATUS_CHANGED.name()), any(Instant.class));
+        verify(eventPublisher).publishEvent(new HandshakeChangedEvent(List.of("test")));
     }
 
     @Test
     void updateHandshake_NotFound_ThrowsException() {
-        when(repository.findByHandshakeName("missing")).thenReturn(Optional.empty());
+        when(repository.transition(eq("missing"), any(), eq(HandshakeStatus.ACCEPTED), any(), any())).thenReturn(0);
+        when(repository.findStateByHandshakeName("missing")).thenReturn(Optional.empty());
         when(exceptionFactory.handshakeNotFound("missing"))
-                .thenReturn((HandshakeNotFoundException) new RuntimeException("Not found"));
+                .thenReturn(new HandshakeNotFoundException("Not found"));
 
-        assertThatThrownBy(() -> handshakeService.updateHandshake("missing", HandshakeStatus.ACCEPTED))
-                .isInstanceOf(RuntimeException.class)
+        assertThatThrownBy(() -> handshakeService.updateHandshake("missing", HandshakeStatus.ACCEPTED, null))
+                .isInstanceOf(HandshakeNotFoundException.class)
                 .hasMessageContaining("Not found");
+        verifyNoInteractions(outbox, eventPublisher);
+    }
+
+    @Test
+    void updateHandshake_DisallowedTransition_ThrowsConflict() {
+        when(repository.transition(eq("test"), any(), eq(HandshakeStatus.ACCEPTED), any(), any())).thenReturn(0);
+        when(repository.findStateByHandshakeName("test"))
+                .thenReturn(Optional.of(new HandshakeState(HandshakeStatus.CANCELLED, 1)));
+        when(exceptionFactory.invalidTransition("test", HandshakeStatus.CANCELLED, HandshakeStatus.ACCEPTED))
+                .thenReturn(new HandshakeInvalidTransitionException("Cannot move"));
+
+        assertThatThrownBy(() -> handshakeService.updateHandshake("test", HandshakeStatus.ACCEPTED, 1L))
+                .isInstanceOf(HandshakeInvalidTransitionException.class);
+    }
+
+    @Test
+    void updateHandshake_StaleVersion_ThrowsVersionMismatch() {
+        when(repository.transition(eq("test"), any(), eq(HandshakeStatus.ACCEPTED), eq(1L), any())).thenReturn(0);
+        when(repository.findStateByHandshakeName("test"))
+                .thenReturn(Optional.of(new HandshakeState(HandshakeStatus.PENDING, 2)));
+        when(exceptionFactory.versionMismatch("test", 1, 2))
+                .thenReturn(new HandshakeVersionMismatchException("Stale"));
+
+        assertThatThrownBy(() -> handshakeService.updateHandshake("test", HandshakeStatus.ACCEPTED, 1L))
+                .isInstanceOf(HandshakeVersionMismatchException.class);
+    }
+
+    @Test
+    void updateHandshake_ToCreated_NeverMatchesWithoutQuerying() {
+        when(repository.findStateByHandshakeName("test"))
+                .thenReturn(Optional.of(new HandshakeState(HandshakeStatus.PENDING, 0)));
+        when(exceptionFactory.invalidTransition("test", HandshakeStatus.PENDING, HandshakeStatus.CREATED))
+                .thenReturn(new HandshakeInvalidTransitionException("Cannot move"));
+
+        assertThatThrownBy(() -> handshakeService.updateHandshake("test", HandshakeStatus.CREATED, null))
+                .isInstanceOf(HandshakeInvalidTransitionException.class);
+        verify(repository, never()).transition(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void updateHandshakes_MixedNames_OneUpdateThenOneLookupForFailures() {
+        when(repository.transitionAll(eq(Set.of("open", "closed", "missing")), any(),
+                eq(HandshakeStatus.ACCEPTED.ordinal()), any(Instant.class))).thenReturn(List.of("open"));
+        when(repository.findStatusesByHandshakeNameIn(Set.of("open", "closed", "missing"))).thenReturn(List.of(
+                namedStatus("open", HandshakeStatus.ACCEPTED), namedStatus("closed", HandshakeStatus.CANCELLED)));
+
+        List<HandshakeTransitionResult> results = handshakeService.updateHandshakes(
+                List.of("open", "closed", "missing", "open"), HandshakeStatus.ACCEPTED);
+
+        assertThat(results).extracting(HandshakeTransitionResult::handshakeName)
+                .containsExactly("open", "closed", "missing");
+        assertThat(results).extracting(HandshakeTransitionResult::updated).containsExactly(true, false, false);
+        assertThat(results.get(1).error()).contains("cannot move from CANCELLED to ACCEPTED");
+        assertThat(results.get(2).error()).contains("not found");
+    }
+
+    @Test
+    void updateHandshakes_AllUpdated_SkipsLookup() {
+        when(repository.transitionAll(any(), any(), anyInt(), any())).thenReturn(List.of("hs1", "hs2"));
+
+        List<HandshakeTransitionResult> results =
+                handshakeService.updateHandshakes(List.of("hs1", "hs2"), HandshakeStatus.COMPLETED);
+
+        assertThat(results).allMatch(HandshakeTransitionResult::updated);
+        verify(repository).transitionAll(any(), eq(List.of(HandshakeStatus.ACCEPTED.ordinal())),
+                eq(HandshakeStatus.COMPLETED.ordinal()), any());
+        verify(repository, never()).findStatusesByHandshakeNameIn(any());
+    }
+
+    @Test
+    void handshakeStatus_TerminalStatusesHaveNoSuccessors() {
+        for (HandshakeStatus next : HandshakeStatus.values()) {
+            assertThat(HandshakeStatus.CANCELLED.canTransitionTo(next)).isFalse();
+            assertThat(HandshakeStatus.COMPLETED.canTransitionTo(next)).isFalse();
+            assertThat(HandshakeStatus.FAILED.canTransitionTo(next)).isFalse();
+        }
+        assertThat(HandshakeStatus.ACCEPTED.canTransitionTo(HandshakeStatus.COMPLETED)).isTrue();
+        assertThat(HandshakeStatus.PENDING.canTransitionTo(HandshakeStatus.COMPLETED)).isFalse();
+        assertThat(HandshakeStatus.CANCELLED.predecessors())
+                .containsExactlyInAnyOrder(HandshakeStatus.CREATED, HandshakeStatus.PENDING);
+    }
+
+    @Test
+    void handshakeStatus_IsFinal_OnlyForTerminalStatuses() {
+        assertThat(EnumSet.allOf(HandshakeStatus.class)).filteredOn(HandshakeStatus::isFinal)
+                .containsExactlyInAnyOrder(HandshakeStatus.CANCELLED, HandshakeStatus.COMPLETED, HandshakeStatus.FAILED);
     }
 
     // ===== GET HANDSHAKE TESTS =====
     @Test
     void getHandshakeByName_Exists_ReturnsDto() {
-        Handshake handshake = new Handshake(
-                "test",
-                "encrypted details",
-                "user1",
-                "user2",
-                user1, user2
-        );
-        when(repository.findByHandshakeName("test")).thenReturn(Optional.of(handshake));
+        when(repository.findDtoByHandshakeName("test")).thenReturn(Optional.of(row(1L, "test").toDto()));
 
         HandshakeDto dto = handshakeService.getHandshakeByName("test");
 
         assertThat(dto.handshakeName()).isEqualTo("test");
+        verify(repository, never()).findByHandshakeName(any());
+    }
+
+    @Test
+    void getHandshakeByName_RepeatedRead_ServedFromCache() {
+        when(repository.findDtoByHandshakeName("test")).thenReturn(Optional.of(row(1L, "test").toDto()));
+
+        handshakeService.getHandshakeByName("test");
+        HandshakeDto dto = handshakeService.getHandshakeByName("test");
+
+        assertThat(dto.handshakeName()).isEqualTo("test");
+        verify(repository, times(1)).findDtoByHandshakeName("test");
+    }
+
+    @Test
+    void getHandshakeByName_NotFound_NotCached() {
+        when(repository.findDtoByHandshakeName("missing")).thenReturn(Optional.empty());
+        when(exceptionFactory.handshakeNotFound("missing")).thenReturn(new HandshakeNotFoundException("missing"));
+
+        assertThatThrownBy(() -> handshakeService.getHandshakeByName("missing"))
+                .isInstanceOf(HandshakeNotFoundException.class);
+        assertThatThrownBy(() -> handshakeService.getHandshakeByName("missing"))
+                .isInstanceOf(HandshakeNotFoundException.class);
+
+        verify(repository, times(2)).findDtoByHandshakeName("missing");
+    }
+
+    @Test
+    void getHandshakeByName_DatabaseFails_ServiceUnavailable() {
+        when(repository.findDtoByHandshakeName("test")).thenThrow(new DataAccessResourceFailureException("down"));
+        when(exceptionFactory.serviceUnavailable(anyString()))
+                .thenReturn(new HandshakeServiceUnavailableException("unavailable"));
+
+        assertThatThrownBy(() -> handshakeService.getHandshakeByName("test"))
+                .isInstanceOf(HandshakeServiceUnavailableException.class);
     }
 
     @Test
     void getHandshakesByInitiator_ReturnsList() {
-        Handshake handshake1 = new Handshake(
-                "hs1",
-                "encrypted details",
-                "user1",
-                "user2",
-                user1, user2
-        );
-        Handshake handshake2 = new Handshake(
-                "hs2",
-                "encrypted details",
-                "user1",
-                "user2",
-                user1, user2
-        );
-        when(repository.findAllByInitiatorUsername("user1")).thenReturn(List.of(handshake1, handshake2));
-
-        List<HandshakeDto> results = handshakeService.getHandshakesByInitiator("user1");
-
-        assertThat(results).hasSize(2);
-        assertThat(results.get(0).handshakeName()).isEqualTo("hs1");
+        when(repository.findByInitiatorUsernameOrderByCreatedDateDescIdDesc("user1", Limit.of(21)))
+                .thenReturn(List.of(row(1L, "hs1"), row(2L, "hs2")));
+
+        CursorPage<HandshakeDto> results = handshakeService.getHandshakesByInitiator("user1", null, 20);
+
+        assertThat(results.items()).hasSize(2);
+        assertThat(results.items().get(0).handshakeName()).isEqualTo("hs1");
+        assertThat(results.nextCursor()).isNull();
+    }
+
+    @Test
+    void getHandshakesByAcceptor_MorePages_SeeksPastCursor() {
+        HandshakeRow newest = row(3L, "hs3");
+        HandshakeRow middle = row(2L, "hs2");
+        HandshakeRow oldest = row(1L, "hs1");
+        when(repository.findByReceiverUsernameOrderByCreatedDateDescIdDesc("user2", Limit.of(3)))
+                .thenReturn(List.of(newest, middle, oldest));
+
+        CursorPage<HandshakeDto> first = handshakeService.getHandshakesByAcceptor("user2", null, 2);
+
+        assertThat(first.items()).extracting(HandshakeDto::handshakeName).containsExactly("hs3", "hs2");
+        assertThat(first.nextCursor()).isNotNull();
+
+        when(repository.findByReceiverUsernameAfter("user2", middle.createdDate(), 2L, Limit.of(3)))
+                .thenReturn(List.of(oldest));
+
+        CursorPage<HandshakeDto> second = handshakeService.getHandshakesByAcceptor("user2", first.nextCursor(), 2);
+
+        assertThat(second.items()).extracting(HandshakeDto::handshakeName).containsExactly("hs1");
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void getHandshakesByInitiator_OversizedLimit_CappedAtMaxPageSize() {
+        handshakeService.getHandshakesByInitiator("user1", null, 10_000);
+
+        verify(repository).findByInitiatorUsernameOrderByCreatedDateDescIdDesc("user1", Limit.of(MAX_PAGE_SIZE + 1));
+    }
+
+    // ===== INBOX TESTS =====
+
+    @Test
+    void getInbox_NoFilters_MergesPageAndZeroFillsCounts() {
+        when(repository.findInbox(eq("user1"), eq(EnumSet.allOf(HandshakeStatus.class)), eq(Instant.EPOCH),
+                any(Instant.class), eq(Long.MIN_VALUE), eq(21)))
+                .thenReturn(List.of(row(2L, "hs2"), row(1L, "hs1")));
+        when(repository.countInbox(eq("user1"), eq(Instant.EPOCH), any(Instant.class)))
+                .thenReturn(List.of(
+                        statusCount(true, HandshakeStatus.CREATED, 2),
+                        statusCount(false, HandshakeStatus.ACCEPTED, 1)));
+
+        HandshakeInbox inbox = handshakeService.getInbox("user1", null, null, null, null, 20);
+
+        assertThat(inbox.items()).extracting(HandshakeDto::handshakeName).containsExactly("hs2", "hs1");
+        assertThat(inbox.nextCursor()).isNull();
+        assertThat(inbox.sentCounts())
+                .hasSize(HandshakeStatus.values().length)
+                .containsEntry(HandshakeStatus.CREATED, 2L)
+                .containsEntry(HandshakeStatus.ACCEPTED, 0L);
+        assertThat(inbox.receivedCounts())
+                .containsEntry(HandshakeStatus.ACCEPTED, 1L)
+                .containsEntry(HandshakeStatus.CREATED, 0L);
+    }
+
+    @Test
+    void getInbox_Filters_BoundBothQueries() {
+        Instant from = Instant.ofEpochSecond(1_000);
+        Instant to = Instant.ofEpochSecond(2_000);
+        when(repository.findInbox("user1", Set.of(HandshakeStatus.PENDING), from, to, Long.MIN_VALUE, 3))
+                .thenReturn(List.of(row(3L, "hs3"), row(2L, "hs2"), row(1L, "hs1")));
+
+        HandshakeInbox inbox = handshakeService.getInbox(
+                "user1", Set.of(HandshakeStatus.PENDING), from, to, null, 2);
+
+        assertThat(inbox.items()).extracting(HandshakeDto::handshakeName).containsExactly("hs3", "hs2");
+        assertThat(inbox.nextCursor()).isNotNull();
+        verify(repository).countInbox("user1", from, to);
+    }
+
+    @Test
+    void getInbox_NextPage_SeeksPastCursor() {
+        HandshakeRow last = row(2L, "hs2");
+        when(repository.findInbox(eq("user1"), any(), any(), any(), anyLong(), eq(2)))
+                .thenReturn(List.of(last, row(1L, "hs1")));
+        String cursor = handshakeService.getInbox("user1", null, null, null, null, 1).nextCursor();
+
+        handshakeService.getInbox("user1", null, null, null, cursor, 1);
+
+        verify(repository).findInbox(eq("user1"), any(), eq(Instant.EPOCH), eq(last.createdDate()), eq(2L), eq(2));
+    }
+
+    @Test
+    void getInbox_FromNotBeforeTo_ThrowsBadRequest() {
+        Instant instant = Instant.ofEpochSecond(1_000);
+        when(exceptionFactory.badRequest(anyString())).thenReturn(new BadRequestException("Empty range"));
+
+        assertThatThrownBy(() -> handshakeService.getInbox("user1", null, instant, instant, null, 20))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(repository);
+    }
+
+    private static HandshakeRepository.StatusCount statusCount(boolean sent, HandshakeStatus status, long total) {
+        return new HandshakeRepository.StatusCount() {
+            @Override
+            public Boolean getSent() {
+                return sent;
+            }
+
+            @Override
+            public HandshakeStatus getHandshakeStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private static HandshakeRepository.NamedStatus namedStatus(String name, HandshakeStatus status) {
+        return new HandshakeRepository.NamedStatus() {
+            @Override
+            public String getHandshakeName() {
+                return name;
+            }
+
+            @Override
+            public HandshakeStatus getHandshakeStatus() {
+                return status;
+            }
+        };
+    }
+
+    private HandshakeRow row(long id, String name) {
+        return new HandshakeRow(id, name, "encrypted details", Instant.ofEpochSecond(1_000 + id), null,
+                HandshakeStatus.CREATED, "user1", "user2", 0);
     }
 }
@@ -0,0 +1,100 @@
+package com.handshakr.handshakr_prototype.service.entities;
+
+import com.handshakr.handshakr_prototype.user.User;
+import com.handshakr.handshakr_prototype.user.UserService;
+import com.handshakr.handshakr_prototype.user.UserUpdatedEvent;
+import com.handshakr.handshakr_prototype.user.UsernameAvailability;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UsernameAvailabilityTest {
+
+    @Mock
+    private UserService userService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UsernameAvailability availability;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        availability = new UsernameAvailability(userService, meterRegistry, 1000, 0.001);
+    }
+
+    @Test
+    void isAvailable_BeforeBuild_UsesExactCheck() {
+        when(userService.usernameExists("alice")).thenReturn(true);
+
+        assertThat(availability.isAvailable("alice")).isFalse();
+    }
+
+    @Test
+    void isAvailable_UnknownUsername_DoesNotQueryDatabase() {
+        when(userService.users()).thenReturn(List.of("alice", "bob"));
+        availability.rebuild();
+
+        assertThat(availability.isAvailable("carol")).isTrue();
+        verify(userService, never()).usernameExists(any());
+    }
+
+    @Test
+    void isAvailable_ExistingUsername_ConfirmedExactly() {
+        when(userService.users()).thenReturn(List.of("alice", "bob"));
+        when(userService.usernameExists("alice")).thenReturn(true);
+        availability.rebuild();
+
+        assertThat(availability.isAvailable("alice")).isFalse();
+        assertThat(meterRegistry.get("username.filter.lookups").tag("result", "taken").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void rebuild_UserSavedWhileReadingSnapshot_KeptInFilter() {
+        when(userService.users()).thenReturn(List.of());
+        availability.rebuild();
+        when(userService.users()).thenAnswer(invocation -> {
+            availability.onUserUpdated(new UserUpdatedEvent(new User("dave", "dave@test.com", "password")));
+            return List.of("alice");
+        });
+        when(userService.usernameExists("dave")).thenReturn(true);
+
+        availability.rebuild();
+
+        assertThat(availability.isAvailable("dave")).isFalse();
+    }
+
+    @Test
+    void rebuild_UserSavedBeforeButMissingFromSnapshot_KeptInFilter() {
+        when(userService.users()).thenReturn(List.of());
+        availability.rebuild();
+        availability.onUserUpdated(new UserUpdatedEvent(new User("erin", "erin@test.com", "password")));
+        when(userService.usernameExists("erin")).thenReturn(true);
+
+        // The save has not committed yet, so the snapshot does not include it
+        availability.rebuild();
+
+        assertThat(availability.isAvailable("erin")).isFalse();
+    }
+
+    @Test
+    void saveUser_AddsUsernameToFilter() {
+        when(userService.users()).thenReturn(List.of());
+        availability.rebuild();
+        when(userService.usernameExists("dave")).thenReturn(true);
+
+        availability.onUserUpdated(new UserUpdatedEvent(new User("dave", "dave@test.com", "password")));
+
+        assertThat(availability.isAvailable("dave")).isFalse();
+        assertThat(meterRegistry.get("username.filter.memory").gauge().value()).isPositive();
+    }
+}
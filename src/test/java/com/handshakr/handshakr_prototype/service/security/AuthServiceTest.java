@@ -1,14 +1,18 @@
 package com.handshakr.handshakr_prototype.service.security;
 
 import com.handshakr.handshakr_prototype.exceptions.UserExceptionFactory;
+import com.handshakr.handshakr_prototype.exceptions.security.TooManyAttemptsException;
+import com.handshakr.handshakr_prototype.exceptions.user.UserAlreadyExistsException;
 import com.handshakr.handshakr_prototype.exceptions.user.UserExceptionType;
 import com.handshakr.handshakr_prototype.security.auth.AuthServiceImpl;
+import com.handshakr.handshakr_prototype.security.auth.LoginAttemptThrottle;
 import com.handshakr.handshakr_prototype.user.User;
 import com.handshakr.handshakr_prototype.user.UserService;
 import com.handshakr.handshakr_prototype.user.dto.LoginRequest;
 import com.handshakr.handshakr_prototype.user.dto.RegisterRequest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -17,6 +21,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.time.Instant;
+
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -35,6 +42,9 @@ class AuthServiceTest {
     @Mock
     private UserExceptionFactory userExceptionFactory;
 
+    @Mock
+    private LoginAttemptThrottle loginAttemptThrottle;
+
     @InjectMocks
     private AuthServiceImpl authService;
 
@@ -44,8 +54,6 @@ class AuthServiceTest {
         RegisterRequest request = new RegisterRequest("user", "user@test.com", "Password123!");
         User mockUser = new User("user", "user@test.com", "encodedPass");
 
-        when(userService.usernameExists("user")).thenReturn(false);
-        when(userService.emailExists("user@test.com")).thenReturn(false);
         when(passwordEncoder.encode("Password123!")).thenReturn("encodedPass");
         when(userService.saveUser(any(User.class))).thenReturn(mockUser);
 
@@ -53,16 +61,24 @@ class AuthServiceTest {
 
         assertThat(result.getUsername()).isEqualTo("user");
         verify(userService).saveUser(any(User.class));
+        verify(userService, never()).usernameExists(any());
+        verify(userService, never()).emailExists(any());
     }
 
     @Test
     void register_ExistingUsername_ThrowsException() {
-        RegisterRequest request = new RegisterRequest("existing", "user@test.com", "pass");
-        when(userService.usernameExists("existing")).thenReturn(true);
+        RegisterRequest request = new RegisterRequest("existing", "user@test.com", "Password123!");
+        when(userService.saveUser(any(User.class)))
+                .thenThrow(new UserAlreadyExistsException("Username 'existing' is already taken"));
 
         assertThatThrownBy(() -> authService.register(request))
-                .isInstanceOf(RuntimeException.class)
-                .hasMessageContaining("already exists");
+                .isInstanceOf(UserAlreadyExistsException.class)
+                .hasMessageContaining("existing");
+
+        ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+        verify(userService).saveUser(saved.capture());
+        assertThat(saved.getValue().getUsername()).isEqualTo("existing");
+        assertThat(saved.getValue().getEmail()).isEqualTo("user@test.com");
     }
 
     @Test
@@ -113,4 +129,48 @@ class AuthServiceTest {
                 .isInstanceOf(LockedException.class)
                 .hasMessage("Account locked");
     }
+
+    @Test
+    void authenticate_Throttled_RejectsBeforeCheckingPasswordWithoutCountingFailure() {
+        LoginRequest request = new LoginRequest("user", "pass");
+
+        when(loginAttemptThrottle.retryAfter("user", "10.0.0.1")).thenReturn(Duration.ofSeconds(30));
+        when(userExceptionFactory.tooManyAttempts(30))
+                .thenReturn(new TooManyAttemptsException("Too many failed login attempts", 30));
+
+        assertThatThrownBy(() -> authService.authenticate(request, "10.0.0.1"))
+                .isInstanceOf(TooManyAttemptsException.class);
+        verify(loginAttemptThrottle, never()).recordFailure(any(), any());
+        verifyNoInteractions(authenticationManager, userService);
+    }
+
+    @Test
+    void authenticate_FailureReachesLockThreshold_LocksAccount() {
+        LoginRequest request = new LoginRequest("user", "wrong");
+        User user = new User("user", "user@test.com", "encodedPass");
+
+        when(loginAttemptThrottle.retryAfter("user", "10.0.0.1")).thenReturn(Duration.ZERO);
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+        when(loginAttemptThrottle.recordFailure("user", "10.0.0.1")).thenReturn(true);
+        when(loginAttemptThrottle.lockDuration()).thenReturn(Duration.ofHours(1));
+        when(userService.findByUsername("user")).thenReturn(user);
+
+        Instant before = Instant.now();
+
+        assertThatThrownBy(() -> authService.authenticate(request, "10.0.0.1"))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThat(user.isAccountNonLocked()).isFalse();
+        assertThat(user.getLockedUntil())
+                .isBetween(before.plus(Duration.ofHours(1)), Instant.now().plus(Duration.ofHours(1)));
+        verify(userService).saveUser(user);
+    }
+
+    @Test
+    void lockedUntil_InThePast_AccountUnlocked() {
+        User user = new User("user", "user@test.com", "encodedPass");
+
+        user.setLockedUntil(Instant.now().minusSeconds(1));
+
+        assertThat(user.isAccountNonLocked()).isTrue();
+    }
 }
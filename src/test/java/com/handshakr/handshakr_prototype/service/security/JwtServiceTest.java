@@ -7,7 +7,6 @@ import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -20,7 +19,6 @@ import static org.junit.jupiter.api.Assertions.*;
 @ExtendWith(MockitoExtension.class)
 class JwtServiceImplTest {
 
-    @InjectMocks
     private JwtServiceImpl jwtService;
 
     private final String secretKey = Base64.getEncoder().encodeToString(
@@ -94,6 +92,57 @@ class JwtServiceImplTest {
         assertEquals("testuser", username);
     }
 
+    @Test
+    void validateToken_ValidToken_ReturnsClaims() {
+        UserDetails user = User.builder()
+                .username("testuser")
+                .password("pass")
+                .roles("USER")
+                .build();
+
+        String token = jwtService.generateToken(user);
+
+        assertThat(jwtService.validateToken(token))
+                .hasValueSatisfying(claims -> {
+                    assertThat(claims.subject()).isEqualTo("testuser");
+                    assertThat(claims.expiration()).isAfter(claims.issuedAt());
+                });
+    }
+
+    @Test
+    void validateToken_RepeatedToken_ReturnsCachedClaims() {
+        UserDetails user = User.builder()
+                .username("testuser")
+                .password("pass")
+                .roles("USER")
+                .build();
+
+        String token = jwtService.generateToken(user);
+
+        assertThat(jwtService.validateToken(token).get())
+                .isSameAs(jwtService.validateToken(token).get());
+    }
+
+    @Test
+    void validateToken_TamperedToken_ReturnsEmpty() {
+        UserDetails user = User.builder()
+                .username("testuser")
+                .password("pass")
+                .roles("USER")
+                .build();
+
+        String token = jwtService.generateToken(user);
+        String forged = Jwts.builder()
+                .subject("admin")
+                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .signWith(Jwts.SIG.HS256.key().build())
+                .compact();
+
+        assertThat(jwtService.validateToken(token + "x")).isEmpty();
+        assertThat(jwtService.validateToken(forged)).isEmpty();
+        assertThat(jwtService.validateToken("")).isEmpty();
+    }
+
     @Test
     void getExpirationTime_ReturnsConfiguredValue() {
         assertEquals(86400000, jwtService.getExpirationTime());
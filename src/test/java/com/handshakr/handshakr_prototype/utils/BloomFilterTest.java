@@ -0,0 +1,39 @@
+package com.handshakr.handshakr_prototype.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_AddedValues_AlwaysTrue() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+        IntStream.range(0, 1_000).forEach(i -> filter.put("value-" + i));
+
+        assertThat(IntStream.range(0, 1_000)).allMatch(i -> filter.mightContain("value-" + i));
+        assertThat(filter.approximateElementCount()).isBetween(900L, 1_100L);
+    }
+
+    @Test
+    void mightContain_AbsentValues_FalsePositiveRateNearTarget() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put(UUID.randomUUID().toString()));
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain(UUID.randomUUID().toString()))
+                .count();
+
+        assertThat(falsePositives).isLessThan(2_000);
+        assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.02);
+    }
+
+    @Test
+    void create_InvalidArguments_Throws() {
+        assertThatThrownBy(() -> BloomFilter.create(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.create(100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}